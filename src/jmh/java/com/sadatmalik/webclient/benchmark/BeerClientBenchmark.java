@@ -0,0 +1,100 @@
+package com.sadatmalik.webclient.benchmark;
+
+import com.sadatmalik.webclient.client.BeerClientImpl;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerStyle;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end client cost (pooling, pipeline, encode and decode) against an in-process {@link StubBeerServer}.
+ * Each invocation issues {@code concurrency} requests at once and waits for all of them, so throughput is in
+ * batches and sample time is the latency of a batch. Run with {@code -prof gc} for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BeerClientBenchmark {
+
+    private static final int CATALOG_SIZE = 1_000;
+
+    @Param({"1", "16", "64"})
+    int concurrency;
+
+    StubBeerServer stubServer;
+    BeerClientImpl beerClient;
+    List<Beer> catalog;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        stubServer = StubBeerServer.start(CATALOG_SIZE);
+        beerClient = new BeerClientImpl(stubServer.webClient());
+        catalog = stubServer.beers();
+    }
+
+    @TearDown(Level.Iteration)
+    public void dropCreatedBeers() {
+        stubServer.removeCreatedBeers();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        stubServer.close();
+    }
+
+    @Benchmark
+    public Object listBeers(PageSize page) {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> beerClient.listBeers(0, page.pageSize, null, null, null))
+                .blockLast();
+    }
+
+    @Benchmark
+    public Object getBeerById() {
+        // random ids, so concurrent calls are not coalesced into one exchange
+        return Flux.range(0, concurrency)
+                .flatMap(i -> beerClient.getBeerById(
+                        catalog.get(ThreadLocalRandom.current().nextInt(catalog.size())).getId(), false))
+                .blockLast();
+    }
+
+    @Benchmark
+    public Object createNewBeer() {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> beerClient.createNewBeer(Beer.builder()
+                        .beerName("Benchmark Beer")
+                        .beerStyle(BeerStyle.PALE_ALE)
+                        .upc("0083783375213")
+                        .price(new BigDecimal("9.99"))
+                        .build()))
+                .blockLast();
+    }
+
+    @State(Scope.Benchmark)
+    public static class PageSize {
+
+        @Param({"25", "250", "1000"})
+        int pageSize;
+    }
+}
@@ -0,0 +1,119 @@
+package com.sadatmalik.webclient.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerStyle;
+import lombok.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of binding beers from JSON: the immutable {@link Beer} against a copy of the mutable bean it replaced.
+ * Scores are per beer; run with {@code -prof gc} and compare {@code gc.alloc.rate.norm} for the bytes allocated to
+ * decode one. The {@code ...AndReadAll} variants also read every field, which forces the lazily parsed dates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(BeerDecodeBenchmark.BEERS)
+public class BeerDecodeBenchmark {
+
+    static final int BEERS = 100;
+
+    ObjectReader beerReader;
+    ObjectReader mutableBeerReader;
+    byte[] json;
+
+    @Setup
+    public void encodeBeers() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        beerReader = objectMapper.readerFor(Beer[].class);
+        mutableBeerReader = objectMapper.readerFor(MutableBeer[].class);
+
+        List<Beer> beers = new ArrayList<>();
+        for (int i = 0; i < BEERS; i++) {
+            beers.add(Beer.builder()
+                    .id(UUID.randomUUID())
+                    .beerName("Beer " + i)
+                    .beerStyle(BeerStyle.values()[i % BeerStyle.values().length])
+                    .upc(String.format("06312342%04d", i))
+                    .price(new BigDecimal("12.95"))
+                    .quantityOnHand(100)
+                    .createdDate(OffsetDateTime.of(2021, 12, 27, 19, 37, 4, 124_000_000, ZoneOffset.UTC))
+                    .lastUpdatedDate(OffsetDateTime.of(2021, 12, 28, 8, 15, 0, 0, ZoneOffset.UTC))
+                    .build());
+        }
+        // ISO strings, as the live service sends them
+        json = objectMapper.writer().without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writeValueAsBytes(beers);
+    }
+
+    @Benchmark
+    public Object decodeBeer() throws Exception {
+        return beerReader.readValue(json);
+    }
+
+    @Benchmark
+    public Object decodeMutableBeer() throws Exception {
+        return mutableBeerReader.readValue(json);
+    }
+
+    @Benchmark
+    public void decodeBeerAndReadAll(Blackhole blackhole) throws Exception {
+        for (Beer beer : beerReader.<Beer[]>readValue(json)) {
+            blackhole.consume(beer.getBeerStyle());
+            blackhole.consume(beer.getPrice());
+            blackhole.consume(beer.getCreatedDate());
+            blackhole.consume(beer.getLastUpdatedDate());
+        }
+    }
+
+    @Benchmark
+    public void decodeMutableBeerAndReadAll(Blackhole blackhole) throws Exception {
+        for (MutableBeer beer : mutableBeerReader.<MutableBeer[]>readValue(json)) {
+            blackhole.consume(beer.getBeerStyle());
+            blackhole.consume(beer.getPrice());
+            blackhole.consume(beer.getCreatedDate());
+            blackhole.consume(beer.getLastUpdatedDate());
+        }
+    }
+
+    /**
+     * The setter-bound bean {@link Beer} used to be, kept here as the baseline.
+     */
+    @Data
+    public static class MutableBeer {
+        private UUID id;
+        private String beerName;
+        private String beerStyle;
+        private String upc;
+        private BigDecimal price;
+        private Integer quantityOnHand;
+        private OffsetDateTime createdDate;
+        private OffsetDateTime lastUpdatedDate;
+    }
+}
@@ -0,0 +1,35 @@
+package com.sadatmalik.webclient.benchmark;
+
+import com.sadatmalik.webclient.WebclientApplication;
+import com.sadatmalik.webclient.loadgen.LoadGenerator;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import org.springframework.boot.SpringApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the application's load-generation mode, {@link LoadGenerator}, against an in-process
+ * {@link StubBeerServer} holding {@value #CATALOG_SIZE} beers. Arguments are passed on to the application, so
+ * any {@code webclient.*} setting can be given, {@code webclient.endpoints} apart:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.sadatmalik.webclient.benchmark.LoadTest
+ * -Dbenchmark.args="--webclient.load.rate=500"}
+ */
+public final class LoadTest {
+
+    static final int CATALOG_SIZE = 500;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) {
+        StubBeerServer stubServer = StubBeerServer.start(CATALOG_SIZE);
+        List<String> applicationArgs = new ArrayList<>(List.of(
+                "--webclient.endpoints=" + stubServer.baseUrl(),
+                "--webclient.load.enabled=true",
+                "--server.port=0"));
+        applicationArgs.addAll(List.of(args));
+        // the load generator exits the JVM, stub server included, once it has reported
+        SpringApplication.run(WebclientApplication.class, applicationArgs.toArray(new String[0]));
+    }
+}
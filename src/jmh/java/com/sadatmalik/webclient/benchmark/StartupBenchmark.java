@@ -0,0 +1,127 @@
+package com.sadatmalik.webclient.benchmark;
+
+import com.sadatmalik.webclient.WebclientApplication;
+import com.sadatmalik.webclient.startup.FirstCallProbe;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching a fresh JVM to the answer of its first {@code listBeers} call, against an in-process
+ * {@link StubBeerServer}. Each invocation starts the application in a child process with {@link FirstCallProbe}
+ * enabled and stops the clock when the probe reports. Needs the thin jar, {@code target/classpath.txt} and the
+ * class data sharing archive built by the {@code fast-start} profile:
+ * {@code mvn -Pfast-start,benchmark -DskipTests package exec:exec -Djmh.args=StartupBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final Path TARGET = Paths.get("target");
+    private static final Path ARCHIVE = TARGET.resolve("webclient.jsa");
+
+    /**
+     * {@code default}: the application as shipped; {@code fast-start}: the fast-start Spring profile;
+     * {@code fast-start-cds}: the fast-start profile on the class data sharing archive.
+     */
+    @Param({"default", "fast-start", "fast-start-cds"})
+    String mode;
+
+    StubBeerServer stubServer;
+    List<String> command;
+    Process process;
+
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        stubServer = StubBeerServer.start(100);
+        command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.endsWith("-cds")) {
+            requireFile(ARCHIVE);
+            command.add("-XX:SharedArchiveFile=" + ARCHIVE);
+        }
+        command.add("-cp");
+        command.add(thinJar() + File.pathSeparator
+                + Files.readString(requireFile(TARGET.resolve("classpath.txt"))).trim());
+        command.add(WebclientApplication.class.getName());
+        if (mode.startsWith("fast-start")) {
+            command.add("--spring.profiles.active=fast-start");
+        }
+        command.add("--webclient.startup.first-call-probe=true");
+        command.add("--webclient.endpoints=" + stubServer.baseUrl());
+        command.add("--server.port=0");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        stubServer.close();
+    }
+
+    @TearDown(Level.Invocation)
+    public void awaitExit() throws InterruptedException {
+        if (process != null && !process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+        process = null;
+    }
+
+    @Benchmark
+    public String timeToFirstListBeers() throws IOException {
+        process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = output.readLine(); line != null; line = output.readLine()) {
+                if (line.contains(FirstCallProbe.MARKER)) {
+                    return line;
+                }
+            }
+        }
+        throw new IllegalStateException("The application exited before its first listBeers call was answered");
+    }
+
+    private static Path thinJar() throws IOException {
+        try (var jars = Files.list(TARGET)) {
+            return jars.filter(path -> path.getFileName().toString().matches("webclient-.*(?<!-exec)\\.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> missing(TARGET.resolve("webclient-*.jar")));
+        }
+    }
+
+    private static Path requireFile(Path path) {
+        if (!Files.isRegularFile(path)) {
+            throw missing(path);
+        }
+        return path;
+    }
+
+    private static IllegalStateException missing(Path path) {
+        return new IllegalStateException(path + " is missing, build it with mvn -Pfast-start -DskipTests package");
+    }
+}
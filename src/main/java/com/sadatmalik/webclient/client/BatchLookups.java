@@ -0,0 +1,29 @@
+package com.sadatmalik.webclient.client;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.function.Function;
+
+/**
+ * Multi-key lookups for a service without a batch endpoint: one single-key lookup per distinct key, a bounded
+ * number in flight at once, results in the order of the keys and keys that are not found skipped.
+ */
+final class BatchLookups {
+
+    // single lookups in flight at once for one multi-key lookup
+    static final int CONCURRENCY = 16;
+
+    private BatchLookups() {
+    }
+
+    static <K, V> Flux<V> fanOut(Collection<K> keys, Function<K, Mono<V>> lookup) {
+        return Flux.fromIterable(new LinkedHashSet<>(keys))
+                .flatMapSequential(key -> lookup.apply(key)
+                        .onErrorResume(WebClientResponseException.NotFound.class, notFound -> Mono.empty()),
+                        CONCURRENCY);
+    }
+}
@@ -0,0 +1,114 @@
+package com.sadatmalik.webclient.client;
+
+import com.sadatmalik.webclient.config.BeerBatchProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerPageElement;
+import com.sadatmalik.webclient.domain.BeerPagedList;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Routes single beer lookups from concurrent callers through {@link MicroBatcher}s in front of another
+ * {@link BeerClient}, so that a burst of lookups is deduplicated and sent as one batch. The service has no batch
+ * endpoint, so a batch is sent as single lookups with bounded concurrency; a beer not found in a batch fails its
+ * callers with the same {@code 404} exception a direct lookup raises, and any other failure of a lookup fails only
+ * the callers of that beer. Everything else is passed through.
+ */
+public class BatchingBeerClient implements BeerClient {
+
+    private final BeerClient delegate;
+    private final MicroBatcher<IdLookup, Beer> beersById;
+    private final MicroBatcher<String, Beer> beersByUpc;
+
+    public BatchingBeerClient(BeerClient delegate, BeerBatchProperties properties) {
+        this.delegate = delegate;
+        this.beersById = new MicroBatcher<>(fanOut(properties,
+                key -> delegate.getBeerById(key.getId(), key.getShowInventoryOnHand())),
+                properties.getMaxBatchSize(), properties.getMaxWait());
+        this.beersByUpc = new MicroBatcher<>(fanOut(properties, delegate::getBeerByUpc),
+                properties.getMaxBatchSize(), properties.getMaxWait());
+    }
+
+    @Override
+    public Mono<Beer> getBeerById(UUID id, Boolean showInventoryOnHand) {
+        return beersById.load(new IdLookup(id, showInventoryOnHand)).switchIfEmpty(notFound());
+    }
+
+    @Override
+    public Mono<Beer> getBeerByUpc(String upc) {
+        return beersByUpc.load(upc).switchIfEmpty(notFound());
+    }
+
+    @Override
+    public Mono<BeerPagedList> listBeers(Integer pageNumber, Integer pageSize, String beerName,
+                                         String beerStyle, Boolean showInventoryOnHand) {
+        return delegate.listBeers(pageNumber, pageSize, beerName, beerStyle, showInventoryOnHand);
+    }
+
+    @Override
+    public Flux<BeerPageElement> streamBeers(Integer pageNumber, Integer pageSize, String beerName,
+                                             String beerStyle, Boolean showInventoryOnHand) {
+        return delegate.streamBeers(pageNumber, pageSize, beerName, beerStyle, showInventoryOnHand);
+    }
+
+    @Override
+    public Flux<Beer> listAllBeers(Integer pageSize, String beerName, String beerStyle, Boolean showInventoryOnHand) {
+        return delegate.listAllBeers(pageSize, beerName, beerStyle, showInventoryOnHand);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> createNewBeer(Beer beer) {
+        return delegate.createNewBeer(beer);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> updateBeerById(UUID beerId, Beer beer) {
+        return delegate.updateBeerById(beerId, beer);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> deleteBeerById(UUID id) {
+        return delegate.deleteBeerById(id);
+    }
+
+    /**
+     * Batches sent so far, across id and UPC lookups.
+     */
+    public long getBatchCount() {
+        return beersById.getBatchCount() + beersByUpc.getBatchCount();
+    }
+
+    private static <K> Function<List<K>, Flux<Tuple2<K, Signal<Beer>>>> fanOut(BeerBatchProperties properties,
+                                                                              Function<K, Mono<Beer>> lookup) {
+        // each lookup ends in a signal of its own, so one failing does not end the batch or cancel the others
+        return keys -> Flux.fromIterable(keys)
+                .flatMap(key -> lookup.apply(key)
+                        .onErrorResume(WebClientResponseException.NotFound.class, notFound -> Mono.empty())
+                        .materialize()
+                        .map(outcome -> Tuples.of(key, outcome)),
+                        properties.getConcurrency());
+    }
+
+    private static Mono<Beer> notFound() {
+        return Mono.error(() -> WebClientResponseException.create(HttpStatus.NOT_FOUND.value(),
+                HttpStatus.NOT_FOUND.getReasonPhrase(), HttpHeaders.EMPTY, new byte[0], null));
+    }
+
+    @Value
+    static class IdLookup {
+        UUID id;
+        Boolean showInventoryOnHand;
+    }
+}
@@ -0,0 +1,164 @@
+package com.sadatmalik.webclient.client;
+
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerStyle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, indexed copy of the beer catalog, held by {@link ReplicatedBeerClient} and replaced as a whole when a
+ * sync finds changes. Beers keep the order of the scan that produced them. Lookups by id and UPC are hashed, styles
+ * map to their beers through an {@link EnumMap}, and names are indexed three ways: exactly (the service's
+ * {@code beerName} filter), by lower-cased prefix, and by lower-cased trigram for substring searches.
+ */
+final class BeerCatalogIndex {
+
+    private static final int GRAM = 3;
+
+    private final List<Beer> beers;
+    private final Map<UUID, Beer> byId = new HashMap<>();
+    private final Map<String, Beer> byUpc = new HashMap<>();
+    private final Map<String, List<Beer>> byName = new HashMap<>();
+    private final Map<BeerStyle, List<Beer>> byStyle = new EnumMap<>(BeerStyle.class);
+    private final NavigableMap<String, List<Beer>> byLowerCaseName = new TreeMap<>();
+    // positions in beers, ascending
+    private final Map<String, int[]> byTrigram;
+
+    BeerCatalogIndex(List<Beer> beers) {
+        this.beers = Collections.unmodifiableList(new ArrayList<>(beers));
+        Map<String, List<Integer>> trigramPositions = new HashMap<>();
+        for (int position = 0; position < beers.size(); position++) {
+            Beer beer = beers.get(position);
+            byId.put(beer.getId(), beer);
+            if (beer.getUpc() != null) {
+                byUpc.put(beer.getUpc(), beer);
+            }
+            if (beer.getBeerStyle() != null) {
+                byStyle.computeIfAbsent(beer.getBeerStyle(), style -> new ArrayList<>()).add(beer);
+            }
+            if (beer.getBeerName() != null) {
+                byName.computeIfAbsent(beer.getBeerName(), name -> new ArrayList<>()).add(beer);
+                String lowerCaseName = lowerCase(beer.getBeerName());
+                byLowerCaseName.computeIfAbsent(lowerCaseName, name -> new ArrayList<>()).add(beer);
+                for (String trigram : trigrams(lowerCaseName)) {
+                    List<Integer> positions = trigramPositions.computeIfAbsent(trigram, gram -> new ArrayList<>());
+                    if (positions.isEmpty() || positions.get(positions.size() - 1) != position) {
+                        positions.add(position);
+                    }
+                }
+            }
+        }
+        this.byTrigram = new HashMap<>(trigramPositions.size() * 4 / 3 + 1);
+        trigramPositions.forEach((trigram, positions) ->
+                byTrigram.put(trigram, positions.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    List<Beer> beers() {
+        return beers;
+    }
+
+    int size() {
+        return beers.size();
+    }
+
+    Beer byId(UUID id) {
+        return byId.get(id);
+    }
+
+    Beer byUpc(String upc) {
+        return byUpc.get(upc);
+    }
+
+    /**
+     * The beers matching the service's list filters: an exact name and a style, either of which may be absent.
+     */
+    List<Beer> filter(String beerName, BeerStyle beerStyle) {
+        if (beerName != null) {
+            List<Beer> named = byName.getOrDefault(beerName, Collections.emptyList());
+            return beerStyle == null ? named : named.stream()
+                    .filter(beer -> beer.getBeerStyle() == beerStyle)
+                    .collect(Collectors.toList());
+        }
+        return beerStyle == null ? beers : byStyle.getOrDefault(beerStyle, Collections.emptyList());
+    }
+
+    /**
+     * Beers whose name starts with {@code prefix}, ignoring case, in name order.
+     */
+    List<Beer> byNamePrefix(String prefix) {
+        String from = lowerCase(prefix);
+        List<Beer> matches = new ArrayList<>();
+        byLowerCaseName.subMap(from, true, from + Character.MAX_VALUE, false).values().forEach(matches::addAll);
+        return matches;
+    }
+
+    /**
+     * Beers whose name contains {@code text}, ignoring case, in catalog order. Candidates are the intersection of
+     * the postings of the text's trigrams, each then checked against the full text.
+     */
+    List<Beer> byNameContaining(String text) {
+        String needle = lowerCase(text);
+        if (needle.length() < GRAM) {
+            return matching(beers, needle);
+        }
+        int[] candidates = null;
+        for (String trigram : trigrams(needle)) {
+            int[] positions = byTrigram.get(trigram);
+            if (positions == null) {
+                return Collections.emptyList();
+            }
+            candidates = candidates == null ? positions : intersect(candidates, positions);
+        }
+        List<Beer> found = new ArrayList<>(candidates.length);
+        for (int position : candidates) {
+            found.add(beers.get(position));
+        }
+        return matching(found, needle);
+    }
+
+    private static List<Beer> matching(List<Beer> beers, String needle) {
+        return beers.stream()
+                .filter(beer -> beer.getBeerName() != null && lowerCase(beer.getBeerName()).contains(needle))
+                .collect(Collectors.toList());
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static List<String> trigrams(String text) {
+        List<String> trigrams = new ArrayList<>(Math.max(0, text.length() - GRAM + 1));
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + GRAM));
+        }
+        return trigrams;
+    }
+
+    private static String lowerCase(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
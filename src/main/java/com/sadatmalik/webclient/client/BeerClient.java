@@ -1,25 +1,80 @@
 package com.sadatmalik.webclient.client;
 
 import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerPageElement;
 import com.sadatmalik.webclient.domain.BeerPagedList;
+import com.sadatmalik.webclient.domain.BulkWriteResult;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface BeerClient {
 
+    /**
+     * Looks up a beer, revalidating a previously read copy with the server rather than downloading it again.
+     */
     Mono<Beer> getBeerById(UUID id, Boolean showInventoryOnHand);
 
+    /**
+     * Reads one page, revalidating a previously read copy with the server rather than downloading it again.
+     */
     Mono<BeerPagedList> listBeers(Integer pageNumber, Integer pageSize, String beerName,
                                   String beerStyle, Boolean showInventoryOnHand);
 
+    /**
+     * Streams a single page, emitting each beer as soon as it has been decoded and the page metadata last.
+     */
+    Flux<BeerPageElement> streamBeers(Integer pageNumber, Integer pageSize, String beerName,
+                                      String beerStyle, Boolean showInventoryOnHand);
+
+    /**
+     * Streams every beer matching the filters, walking the pages of {@link #listBeers} in order.
+     * The next pages are fetched while the current one is consumed, bounded by downstream demand.
+     */
+    Flux<Beer> listAllBeers(Integer pageSize, String beerName, String beerStyle, Boolean showInventoryOnHand);
+
     Mono<ResponseEntity<Void>> createNewBeer(Beer beer);
 
     Mono<ResponseEntity<Void>> updateBeerById(UUID beerId, Beer beer);
 
     Mono<ResponseEntity<Void>> deleteBeerById(UUID id);
 
+    /**
+     * Creates each beer with {@link #createNewBeer}, keeping up to {@code options.concurrency} requests in flight.
+     * Emits one result per beer, in completion order, carrying the {@code Location} of the new beer or the error.
+     */
+    default Flux<BulkWriteResult> createNewBeers(Flux<Beer> beers, BulkWriteOptions options) {
+        return BulkWrites.pipeline(beers, options, beer -> null, this::createNewBeer);
+    }
+
+    /**
+     * Applies each (id, beer) update with {@link #updateBeerById}, keeping up to {@code options.concurrency}
+     * requests in flight. Emits one result per update, in completion order.
+     */
+    default Flux<BulkWriteResult> updateBeersById(Flux<Tuple2<UUID, Beer>> updates, BulkWriteOptions options) {
+        return BulkWrites.pipeline(updates, options, Tuple2::getT1,
+                update -> updateBeerById(update.getT1(), update.getT2()));
+    }
+
     Mono<Beer> getBeerByUpc(String upc);
 
+    /**
+     * Looks up several beers with {@link #getBeerById}, a bounded number at a time, emitting them in the order of
+     * the ids. Duplicate ids are looked up once and ids with no beer are skipped.
+     */
+    default Flux<Beer> getBeersByIds(Collection<UUID> ids) {
+        return BatchLookups.fanOut(ids, id -> getBeerById(id, null));
+    }
+
+    /**
+     * Looks up several beers with {@link #getBeerByUpc}, like {@link #getBeersByIds}.
+     */
+    default Flux<Beer> getBeersByUpcs(Collection<String> upcs) {
+        return BatchLookups.fanOut(upcs, this::getBeerByUpc);
+    }
+
 }
@@ -2,83 +2,172 @@ package com.sadatmalik.webclient.client;
 
 import com.sadatmalik.webclient.config.WebClientProperties;
 import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerPageElement;
 import com.sadatmalik.webclient.domain.BeerPagedList;
+import com.sadatmalik.webclient.timing.TimedExchange;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 @RequiredArgsConstructor
 @Service
 public class BeerClientImpl implements BeerClient {
 
+    // pages requested ahead of the one being consumed during a full catalog scan
+    static final int SCAN_PAGE_PREFETCH = 2;
+
+    // beers kept with their validators for conditional re-reads, a page weighing as many beers as it holds
+    static final int REVALIDATION_STORE_BEERS = 10_000;
+
     private final WebClient webClient;
 
+    // concurrent lookups of the same beer share one exchange
+    private final RequestCoalescer<List<Object>, Beer> beerByIdLookups = new RequestCoalescer<>();
+    private final RequestCoalescer<String, Beer> beerByUpcLookups = new RequestCoalescer<>();
+
+    private final RevalidationStore<List<Object>> revalidationStore = new RevalidationStore<>(REVALIDATION_STORE_BEERS,
+            BeerClientImpl::beersIn);
+
     @Override
     public Mono<BeerPagedList> listBeers(Integer pageNumber, Integer pageSize, String beerName,
                                          String beerStyle, Boolean showInventoryOnHand) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder.path(WebClientProperties.BEER_V1_PATH)
-                        .queryParamIfPresent("pageNumber", Optional.ofNullable(pageNumber))
-                        .queryParamIfPresent("pageSize", Optional.ofNullable(pageSize))
-                        .queryParamIfPresent("beerName", Optional.ofNullable(beerName))
-                        .queryParamIfPresent("beerStyle", Optional.ofNullable(beerStyle))
-                        .queryParamIfPresent("showInventoryOnHand", Optional.ofNullable(showInventoryOnHand))
-                        .build()
-                )
+        return TimedExchange.track(revalidationStore.read(
+                Arrays.asList(BeerOperation.LIST_BEERS, pageNumber, pageSize, beerName, beerStyle, showInventoryOnHand),
+                () -> webClient.get()
+                        .uri(listBeersUri(pageNumber, pageSize, beerName, beerStyle, showInventoryOnHand))
+                        .attribute(BeerOperation.ATTRIBUTE, BeerOperation.LIST_BEERS),
+                BeerPagedList.class));
+    }
+
+    @Override
+    public Flux<BeerPageElement> streamBeers(Integer pageNumber, Integer pageSize, String beerName,
+                                             String beerStyle, Boolean showInventoryOnHand) {
+        return TimedExchange.track(webClient.get()
+                .uri(listBeersUri(pageNumber, pageSize, beerName, beerStyle, showInventoryOnHand))
+                .attribute(BeerOperation.ATTRIBUTE, BeerOperation.LIST_BEERS)
                 .retrieve()
-                .bodyToMono(BeerPagedList.class);
+                .bodyToFlux(BeerPageElement.class));
+    }
+
+    private Function<UriBuilder, URI> listBeersUri(Integer pageNumber, Integer pageSize, String beerName,
+                                                   String beerStyle, Boolean showInventoryOnHand) {
+        return uriBuilder -> uriBuilder.path(WebClientProperties.BEER_V1_PATH)
+                .queryParamIfPresent("pageNumber", Optional.ofNullable(pageNumber))
+                .queryParamIfPresent("pageSize", Optional.ofNullable(pageSize))
+                .queryParamIfPresent("beerName", Optional.ofNullable(beerName))
+                .queryParamIfPresent("beerStyle", Optional.ofNullable(beerStyle))
+                .queryParamIfPresent("showInventoryOnHand", Optional.ofNullable(showInventoryOnHand))
+                .build();
+    }
+
+    @Override
+    public Flux<Beer> listAllBeers(Integer pageSize, String beerName, String beerStyle,
+                                   Boolean showInventoryOnHand) {
+        return listBeers(null, pageSize, beerName, beerStyle, showInventoryOnHand)
+                .flatMapMany(firstPage -> {
+                    if (firstPage.isLast()) {
+                        return Flux.just(firstPage);
+                    }
+                    // the first page tells us the server-side page size and how many pages follow
+                    Flux<BeerPagedList> remainingPages = Flux.range(firstPage.getNumber() + 1,
+                                    firstPage.getTotalPages() - firstPage.getNumber() - 1)
+                            .flatMapSequential(page -> listBeers(page, firstPage.getSize(), beerName,
+                                    beerStyle, showInventoryOnHand), SCAN_PAGE_PREFETCH, 1)
+                            .takeUntil(page -> page.isLast() || page.getNumberOfElements() == 0);
+
+                    return Flux.concat(Mono.just(firstPage), remainingPages);
+                })
+                .concatMapIterable(BeerPagedList::getContent, 1);
     }
 
     @Override
     public Mono<Beer> getBeerById(UUID id, Boolean showInventoryOnHand) {
-        return webClient.get()
+        List<Object> key = Arrays.asList(id, showInventoryOnHand);
+        // timed inside the coalescer, whose shared exchange runs outside any one caller's context
+        return beerByIdLookups.execute(key, () -> TimedExchange.track(revalidationStore.read(key, () -> webClient.get()
                 .uri(uriBuilder -> uriBuilder.path(WebClientProperties.BEER_V1_PATH_GET_BY_ID)
                         .queryParamIfPresent("showInventoryOnHand", Optional.ofNullable(showInventoryOnHand))
                         .build(id) // this id will be bound to the BEER_V1_PATH_GET_BY_ID {uuid}
                 )
-                .retrieve()
-                .bodyToMono(Beer.class);
+                .attribute(BeerOperation.ATTRIBUTE, BeerOperation.GET_BEER_BY_ID), Beer.class)));
     }
 
     @Override
     public Mono<Beer> getBeerByUpc(String upc) {
-        return webClient.get()
+        return beerByUpcLookups.execute(upc, () -> TimedExchange.track(webClient.get()
                 .uri(uriBuilder -> uriBuilder.path(WebClientProperties.BEER_V1_UPC_PATH)
                         .build(upc)) // passed into {upc} parameter in path
+                .attribute(BeerOperation.ATTRIBUTE, BeerOperation.GET_BEER_BY_UPC)
                 .retrieve()
-                .bodyToMono(Beer.class);
+                .bodyToMono(Beer.class)));
+    }
+
+    /**
+     * Total {@link #getBeerById} and {@link #getBeerByUpc} calls.
+     */
+    public long getLookupCount() {
+        return beerByIdLookups.getCallCount() + beerByUpcLookups.getCallCount();
+    }
+
+    /**
+     * {@link #getBeerById} and {@link #getBeerByUpc} calls served by joining an identical lookup in flight.
+     */
+    public long getCoalescedLookupCount() {
+        return beerByIdLookups.getCoalescedCount() + beerByUpcLookups.getCoalescedCount();
+    }
+
+    /**
+     * {@link #getBeerById} and {@link #listBeers} calls answered with {@code 304 Not Modified}, reusing the
+     * previously decoded result.
+     */
+    public long getNotModifiedCount() {
+        return revalidationStore.getNotModifiedCount();
+    }
+
+    private static int beersIn(Object stored) {
+        return stored instanceof BeerPagedList ? Math.max(1, ((BeerPagedList) stored).getNumberOfElements()) : 1;
     }
 
     @Override
     public Mono<ResponseEntity<Void>> createNewBeer(Beer beer) {
-        return webClient.post().uri(uriBuilder -> uriBuilder.path(WebClientProperties.BEER_V1_PATH).build())
+        return TimedExchange.track(webClient.post()
+                .uri(uriBuilder -> uriBuilder.path(WebClientProperties.BEER_V1_PATH).build())
+                .attribute(BeerOperation.ATTRIBUTE, BeerOperation.CREATE_NEW_BEER)
                 .body(BodyInserters.fromValue(beer))
                 .retrieve()
-                .toBodilessEntity();
+                .toBodilessEntity());
     }
 
     @Override
     public Mono<ResponseEntity<Void>> updateBeerById(UUID beerId, Beer beer) {
-        return webClient.put()
+        return TimedExchange.track(webClient.put()
                 .uri(uriBuilder -> uriBuilder.path(WebClientProperties.BEER_V1_PATH_GET_BY_ID)
                         .build(beerId))
+                .attribute(BeerOperation.ATTRIBUTE, BeerOperation.UPDATE_BEER_BY_ID)
                 .body(BodyInserters.fromValue(beer))
                 .retrieve()
-                .toBodilessEntity();
+                .toBodilessEntity());
     }
 
     @Override
     public Mono<ResponseEntity<Void>> deleteBeerById(UUID id) {
-        return webClient.delete()
+        return TimedExchange.track(webClient.delete()
                 .uri(uriBuilder -> uriBuilder.path(WebClientProperties.BEER_V1_PATH_GET_BY_ID)
                         .build(id))
+                .attribute(BeerOperation.ATTRIBUTE, BeerOperation.DELETE_BEER_BY_ID)
                 .retrieve()
-                .toBodilessEntity();
+                .toBodilessEntity());
     }
 }
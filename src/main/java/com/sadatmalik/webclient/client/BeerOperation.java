@@ -0,0 +1,35 @@
+package com.sadatmalik.webclient.client;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+
+import java.util.Optional;
+
+/**
+ * The {@link BeerClient} operation an exchange belongs to, carried as a request attribute so exchange filters
+ * can tell operations apart.
+ */
+public enum BeerOperation {
+
+    LIST_BEERS("listBeers"),
+    GET_BEER_BY_ID("getBeerById"),
+    GET_BEER_BY_UPC("getBeerByUpc"),
+    CREATE_NEW_BEER("createNewBeer"),
+    UPDATE_BEER_BY_ID("updateBeerById"),
+    DELETE_BEER_BY_ID("deleteBeerById");
+
+    public static final String ATTRIBUTE = BeerOperation.class.getName();
+
+    private final String operationName;
+
+    BeerOperation(String operationName) {
+        this.operationName = operationName;
+    }
+
+    public String getOperationName() {
+        return operationName;
+    }
+
+    public static Optional<BeerOperation> from(ClientRequest request) {
+        return request.attribute(ATTRIBUTE).map(BeerOperation.class::cast);
+    }
+}
@@ -0,0 +1,118 @@
+package com.sadatmalik.webclient.client;
+
+import com.sadatmalik.webclient.config.BeerBlockingProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerPagedList;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * A synchronous view of a {@link BeerClient} for callers written against blocking APIs. Each call holds the calling
+ * thread until its result arrives or {@code timeout} passes, so thousands of them in flight need thousands of
+ * threads; {@link #submit} runs such callers on a virtual thread each on Java 21 and later, where a blocked caller
+ * parks without holding a platform thread. Virtual threads are found reflectively, so the module
+ * still builds for Java 11 and falls back to a bounded pool of platform threads on older runtimes.
+ * <p>
+ * The calls must not be made on a Netty event loop thread: Reactor refuses to block there with an
+ * {@link IllegalStateException}.
+ */
+@Slf4j
+public class BlockingBeerClient implements AutoCloseable {
+
+    private final BeerClient beerClient;
+    private final Duration timeout;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    public BlockingBeerClient(BeerClient beerClient, BeerBlockingProperties properties) {
+        this.beerClient = beerClient;
+        this.timeout = properties.getTimeout();
+        ExecutorService virtualThreadExecutor = properties.isVirtualThreads() ? newVirtualThreadExecutor() : null;
+        this.virtualThreads = virtualThreadExecutor != null;
+        this.executor = virtualThreadExecutor != null ? virtualThreadExecutor : Executors.newFixedThreadPool(
+                properties.getPlatformThreads(), new CustomizableThreadFactory("beer-client-blocking-"));
+    }
+
+    public Beer getBeerById(UUID id, Boolean showInventoryOnHand) {
+        return block(beerClient.getBeerById(id, showInventoryOnHand));
+    }
+
+    public Beer getBeerByUpc(String upc) {
+        return block(beerClient.getBeerByUpc(upc));
+    }
+
+    public List<Beer> getBeersByIds(Collection<UUID> ids) {
+        return block(beerClient.getBeersByIds(ids).collectList());
+    }
+
+    public BeerPagedList listBeers(Integer pageNumber, Integer pageSize, String beerName,
+                                   String beerStyle, Boolean showInventoryOnHand) {
+        return block(beerClient.listBeers(pageNumber, pageSize, beerName, beerStyle, showInventoryOnHand));
+    }
+
+    /**
+     * Every beer matching the filters, read page by page into one list.
+     */
+    public List<Beer> listAllBeers(Integer pageSize, String beerName, String beerStyle, Boolean showInventoryOnHand) {
+        return block(beerClient.listAllBeers(pageSize, beerName, beerStyle, showInventoryOnHand).collectList());
+    }
+
+    public ResponseEntity<Void> createNewBeer(Beer beer) {
+        return block(beerClient.createNewBeer(beer));
+    }
+
+    public ResponseEntity<Void> updateBeerById(UUID beerId, Beer beer) {
+        return block(beerClient.updateBeerById(beerId, beer));
+    }
+
+    public ResponseEntity<Void> deleteBeerById(UUID id) {
+        return block(beerClient.deleteBeerById(id));
+    }
+
+    /**
+     * Runs blocking work against this client on a thread of its own, a virtual one when available.
+     */
+    public <T> CompletableFuture<T> submit(Function<BlockingBeerClient, T> task) {
+        return CompletableFuture.supplyAsync(() -> task.apply(this), executor);
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T block(Mono<T> result) {
+        return result.block(timeout);
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            log.info("Virtual threads need Java 21, running blocking beer client tasks on platform threads");
+        } catch (InvocationTargetException e) {
+            // a preview feature on Java 19 and 20, refused without --enable-preview
+            log.info("Virtual threads unavailable, running blocking beer client tasks on platform threads",
+                    e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return null;
+    }
+}
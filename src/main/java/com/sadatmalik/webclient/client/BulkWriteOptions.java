@@ -0,0 +1,26 @@
+package com.sadatmalik.webclient.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Pipelining limits for {@link BeerClient#createNewBeers} and {@link BeerClient#updateBeersById}.
+ */
+@Value
+@Builder
+public class BulkWriteOptions {
+
+    public static final BulkWriteOptions DEFAULTS = BulkWriteOptions.builder().build();
+
+    /**
+     * Requests in flight at once. Requests beyond the connection pool size wait for a connection.
+     */
+    @Builder.Default
+    int concurrency = 8;
+
+    /**
+     * Upper bound on requests started per second, or 0 for no limit.
+     */
+    @Builder.Default
+    int maxRequestsPerSecond = 0;
+}
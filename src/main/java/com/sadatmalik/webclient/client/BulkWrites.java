@@ -0,0 +1,50 @@
+package com.sadatmalik.webclient.client;
+
+import com.sadatmalik.webclient.domain.BulkWriteResult;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs one write per input item with bounded concurrency and an optional rate limit, turning every outcome,
+ * including failures, into a {@link BulkWriteResult} so that one bad item does not end the batch.
+ */
+final class BulkWrites {
+
+    private BulkWrites() {
+    }
+
+    static <T> Flux<BulkWriteResult> pipeline(Flux<T> items, BulkWriteOptions options, Function<T, UUID> beerId,
+                                              Function<T, Mono<ResponseEntity<Void>>> write) {
+        Flux<Tuple2<Long, T>> indexed = items.index();
+        if (options.getMaxRequestsPerSecond() > 0) {
+            // items are released one interval apart, so the start rate never exceeds the limit
+            indexed = indexed.delayElements(
+                    Duration.ofNanos(TimeUnit.SECONDS.toNanos(1) / options.getMaxRequestsPerSecond()));
+        }
+        return indexed.flatMap(item -> {
+            BulkWriteResult.BulkWriteResultBuilder result = BulkWriteResult.builder()
+                    .index(item.getT1())
+                    .beerId(beerId.apply(item.getT2()));
+            return Mono.defer(() -> write.apply(item.getT2()))
+                    .map(response -> result.status(response.getStatusCode())
+                            .location(response.getHeaders().getLocation())
+                            .build())
+                    .onErrorResume(error -> Mono.just(result.status(statusOf(error)).error(error).build()));
+        }, options.getConcurrency());
+    }
+
+    private static HttpStatus statusOf(Throwable error) {
+        return error instanceof WebClientResponseException
+                ? HttpStatus.resolve(((WebClientResponseException) error).getRawStatusCode())
+                : null;
+    }
+}
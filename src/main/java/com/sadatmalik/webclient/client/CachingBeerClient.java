@@ -0,0 +1,170 @@
+package com.sadatmalik.webclient.client;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sadatmalik.webclient.config.BeerCacheProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerPageElement;
+import com.sadatmalik.webclient.domain.BeerPagedList;
+import lombok.Value;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache in front of another {@link BeerClient}. Beer lookups and pages expire after a fixed time to
+ * live and are bounded in size; entries read after {@code refreshAfter} are reloaded in the background so hot keys
+ * never go cold. Beers are indexed by id and UPC, and a load through either index warms the other. Writes
+ * invalidate the beer they touch and every cached page.
+ */
+public class CachingBeerClient implements BeerClient {
+
+    private final BeerClient delegate;
+    private final AsyncLoadingCache<BeerIdKey, Beer> beersById;
+    private final AsyncLoadingCache<String, Beer> beersByUpc;
+    private final AsyncLoadingCache<PageKey, BeerPagedList> pages;
+
+    public CachingBeerClient(BeerClient delegate, BeerCacheProperties properties) {
+        this.delegate = delegate;
+        this.beersById = newCache(properties, properties.getMaximumBeers())
+                .buildAsync((key, executor) -> delegate.getBeerById(key.getId(), key.isShowInventoryOnHand())
+                        .doOnNext(this::warmUpcIndex)
+                        .toFuture());
+        this.beersByUpc = newCache(properties, properties.getMaximumBeers())
+                .buildAsync((upc, executor) -> delegate.getBeerByUpc(upc)
+                        .doOnNext(this::warmIdIndex)
+                        .toFuture());
+        this.pages = newCache(properties, properties.getMaximumPages())
+                .buildAsync((key, executor) -> delegate.listBeers(key.getPageNumber(), key.getPageSize(),
+                        key.getBeerName(), key.getBeerStyle(), key.getShowInventoryOnHand()).toFuture());
+    }
+
+    @Override
+    public Mono<Beer> getBeerById(UUID id, Boolean showInventoryOnHand) {
+        return fromCache(() -> beersById.get(new BeerIdKey(id, Boolean.TRUE.equals(showInventoryOnHand))));
+    }
+
+    @Override
+    public Mono<Beer> getBeerByUpc(String upc) {
+        return fromCache(() -> beersByUpc.get(upc));
+    }
+
+    @Override
+    public Mono<BeerPagedList> listBeers(Integer pageNumber, Integer pageSize, String beerName,
+                                         String beerStyle, Boolean showInventoryOnHand) {
+        return fromCache(() -> pages.get(new PageKey(pageNumber, pageSize, beerName, beerStyle, showInventoryOnHand)));
+    }
+
+    @Override
+    public Flux<BeerPageElement> streamBeers(Integer pageNumber, Integer pageSize, String beerName,
+                                             String beerStyle, Boolean showInventoryOnHand) {
+        return delegate.streamBeers(pageNumber, pageSize, beerName, beerStyle, showInventoryOnHand);
+    }
+
+    @Override
+    public Flux<Beer> listAllBeers(Integer pageSize, String beerName, String beerStyle, Boolean showInventoryOnHand) {
+        return delegate.listAllBeers(pageSize, beerName, beerStyle, showInventoryOnHand);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> createNewBeer(Beer beer) {
+        return invalidating(delegate.createNewBeer(beer), () -> {
+            invalidateUpc(beer.getUpc());
+            pages.synchronous().invalidateAll();
+        });
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> updateBeerById(UUID beerId, Beer beer) {
+        return invalidating(delegate.updateBeerById(beerId, beer), () -> {
+            invalidateBeer(beerId);
+            invalidateUpc(beer.getUpc());
+        });
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> deleteBeerById(UUID id) {
+        return invalidating(delegate.deleteBeerById(id), () -> invalidateBeer(id));
+    }
+
+    /**
+     * Drops every cached entry for the beer, under both indexes, along with all cached pages.
+     */
+    public void invalidateBeer(UUID id) {
+        beersById.synchronous().invalidate(new BeerIdKey(id, false));
+        beersById.synchronous().invalidate(new BeerIdKey(id, true));
+        beersByUpc.synchronous().asMap().values().removeIf(beer -> id.equals(beer.getId()));
+        pages.synchronous().invalidateAll();
+    }
+
+    private void invalidateUpc(String upc) {
+        if (upc != null) {
+            Beer cached = beersByUpc.synchronous().getIfPresent(upc);
+            beersByUpc.synchronous().invalidate(upc);
+            if (cached != null && cached.getId() != null) {
+                invalidateBeer(cached.getId());
+            }
+        }
+    }
+
+    private void warmUpcIndex(Beer beer) {
+        // a UPC lookup has no inventory flag, so only beers fetched without inventory can stand in for one
+        if (beer.getUpc() != null && beer.getQuantityOnHand() == null) {
+            beersByUpc.put(beer.getUpc(), CompletableFuture.completedFuture(beer));
+        }
+    }
+
+    private void warmIdIndex(Beer beer) {
+        if (beer.getId() != null) {
+            beersById.put(new BeerIdKey(beer.getId(), false), CompletableFuture.completedFuture(beer));
+        }
+    }
+
+    /**
+     * Runs the invalidation however the write ends, and before the caller sees the outcome, since even a failed or
+     * cancelled write may have been applied by the server.
+     */
+    private static <T> Mono<T> invalidating(Mono<T> write, Runnable invalidation) {
+        return write.doOnTerminate(invalidation).doOnCancel(invalidation);
+    }
+
+    private static Caffeine<Object, Object> newCache(BeerCacheProperties properties, long maximumSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(properties.getTimeToLive())
+                .refreshAfterWrite(properties.getRefreshAfter());
+    }
+
+    /**
+     * Adapts a shared cache future without letting a cancelling subscriber cancel it for everyone else.
+     */
+    private static <T> Mono<T> fromCache(Supplier<CompletableFuture<T>> lookup) {
+        return Mono.create(sink -> lookup.get().whenComplete((value, error) -> {
+            if (error != null) {
+                sink.error(error instanceof CompletionException ? error.getCause() : error);
+            } else {
+                sink.success(value);
+            }
+        }));
+    }
+
+    @Value
+    static class BeerIdKey {
+        UUID id;
+        boolean showInventoryOnHand;
+    }
+
+    @Value
+    static class PageKey {
+        Integer pageNumber;
+        Integer pageSize;
+        String beerName;
+        String beerStyle;
+        Boolean showInventoryOnHand;
+    }
+}
@@ -0,0 +1,51 @@
+package com.sadatmalik.webclient.client;
+
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ends an exchange where its connection is actually given back: once the response body has been read, has failed
+ * or has been cancelled, rather than when the response headers arrive. Filters holding a slot for the duration of a
+ * request release it here, so that a large page still streaming its body keeps counting against them.
+ */
+public final class ExchangeCompletion {
+
+    private ExchangeCompletion() {
+    }
+
+    /**
+     * Runs {@code onEnd} exactly once: when the body of the response ends, or when the exchange fails, is
+     * cancelled or completes without a response. Like the connection, the slot is only returned once the caller
+     * consumes or releases the body.
+     */
+    public static Mono<ClientResponse> whenBodyEnds(Mono<ClientResponse> exchange, Runnable onEnd) {
+        return Mono.defer(() -> {
+            AtomicBoolean ended = new AtomicBoolean();
+            AtomicBoolean responded = new AtomicBoolean();
+            Runnable end = () -> {
+                if (ended.compareAndSet(false, true)) {
+                    onEnd.run();
+                }
+            };
+            // run before the caller sees the end, so a call it sends next finds the slot already returned
+            return exchange
+                    .map(response -> {
+                        responded.set(true);
+                        return response.mutate().body(body -> body.doOnTerminate(end).doOnCancel(end)).build();
+                    })
+                    .doOnSuccess(response -> {
+                        if (response == null) {
+                            end.run();
+                        }
+                    })
+                    .doOnError(error -> end.run())
+                    .doOnCancel(() -> {
+                        if (!responded.get()) {
+                            end.run();
+                        }
+                    });
+        });
+    }
+}
@@ -0,0 +1,127 @@
+package com.sadatmalik.webclient.client;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Signal;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Gathers single-key loads from many callers into batches, sent when a batch reaches {@code maxBatchSize}
+ * distinct keys or {@code maxWait} after its first key arrived. Callers asking for the same key within a window
+ * share one entry in the batch. The loader emits (key, outcome) pairs as they become available, settling each
+ * caller as soon as its key is emitted: a value completes it with that value, an empty completion completes it
+ * empty and an error fails it, leaving the other keys of the batch to load. Keys the loader does not emit complete
+ * empty, and an error ending the loader itself fails every caller of the batch still waiting.
+ */
+public class MicroBatcher<K, V> {
+
+    private final Function<List<K>, Flux<Tuple2<K, Signal<V>>>> loader;
+    private final int maxBatchSize;
+    private final Duration maxWait;
+    private final Scheduler scheduler;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    private Map<K, List<MonoSink<V>>> pending = new LinkedHashMap<>();
+    private Disposable flushTimer;
+
+    public MicroBatcher(Function<List<K>, Flux<Tuple2<K, Signal<V>>>> loader, int maxBatchSize, Duration maxWait) {
+        this(loader, maxBatchSize, maxWait, Schedulers.parallel());
+    }
+
+    MicroBatcher(Function<List<K>, Flux<Tuple2<K, Signal<V>>>> loader, int maxBatchSize, Duration maxWait,
+                 Scheduler scheduler) {
+        this.loader = loader;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWait = maxWait;
+        this.scheduler = scheduler;
+    }
+
+    public Mono<V> load(K key) {
+        return Mono.create(sink -> {
+            loads.increment();
+            Map<K, List<MonoSink<V>>> full = null;
+            synchronized (this) {
+                pending.computeIfAbsent(key, k -> new ArrayList<>(1)).add(sink);
+                if (pending.size() >= maxBatchSize) {
+                    full = takePending();
+                } else if (flushTimer == null) {
+                    flushTimer = scheduler.schedule(this::flush, maxWait.toNanos(), TimeUnit.NANOSECONDS);
+                }
+            }
+            if (full != null) {
+                dispatch(full);
+            }
+        });
+    }
+
+    /**
+     * Batches sent to the loader so far.
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Loads requested so far, including those that shared a key with another load in the same batch.
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    private void flush() {
+        Map<K, List<MonoSink<V>>> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    // guarded by this
+    private Map<K, List<MonoSink<V>>> takePending() {
+        Map<K, List<MonoSink<V>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        if (flushTimer != null) {
+            flushTimer.dispose();
+            flushTimer = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<K, List<MonoSink<V>>> batch) {
+        batches.increment();
+        // a sink ignores signals after its first, so completing everyone at the end only affects keys not emitted
+        Flux.defer(() -> loader.apply(new ArrayList<>(batch.keySet()))).subscribe(
+                result -> {
+                    List<MonoSink<V>> sinks = batch.get(result.getT1());
+                    if (sinks != null) {
+                        sinks.forEach(sink -> settle(sink, result.getT2()));
+                    }
+                },
+                error -> batch.values().forEach(sinks -> sinks.forEach(sink -> sink.error(error))),
+                () -> batch.values().forEach(sinks -> sinks.forEach(MonoSink::success)));
+    }
+
+    private static <V> void settle(MonoSink<V> sink, Signal<V> outcome) {
+        if (outcome.isOnError()) {
+            sink.error(outcome.getThrowable());
+        } else {
+            sink.success(outcome.get());
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.sadatmalik.webclient.client;
+
+import com.sadatmalik.webclient.config.BeerReplicaProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerPageElement;
+import com.sadatmalik.webclient.domain.BeerPageMetadata;
+import com.sadatmalik.webclient.domain.BeerPagedList;
+import com.sadatmalik.webclient.domain.BeerStyle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Serves reads from an in-process replica of the whole catalog, in front of another {@link BeerClient}. The replica
+ * is bootstrapped by a full paged scan of {@code source} and kept fresh by rescanning every {@code syncInterval}.
+ * The service has no "changed since" filter, so a sync walks every page; unchanged pages are revalidated rather
+ * than downloaded, and the index is only rebuilt when any field of a beer differs, one appears or one
+ * disappears.
+ * <p>
+ * Reads are answered locally while the replica is fresh: it has been bootstrapped, the last successful sync
+ * started within {@code maxStaleness}, and no write through this client has completed since that sync started.
+ * Otherwise, and for style filters the replica does not recognise, reads go to {@code delegate}. Writes always go
+ * to {@code delegate}.
+ */
+@Slf4j
+public class ReplicatedBeerClient implements BeerClient, AutoCloseable {
+
+    static final int DEFAULT_PAGE_SIZE = 25;
+
+    private final BeerClient delegate;
+    private final BeerClient source;
+    private final BeerReplicaProperties properties;
+
+    private volatile BeerCatalogIndex index;
+    private volatile long syncStartedNanos;
+    private volatile long syncedWrites;
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong syncs = new AtomicLong();
+    private final AtomicLong localReads = new AtomicLong();
+    private Disposable scheduledSyncs;
+
+    /**
+     * @param delegate the client reads fall back to and writes go through
+     * @param source   the client the catalog is scanned from, which should not cache pages
+     */
+    public ReplicatedBeerClient(BeerClient delegate, BeerClient source, BeerReplicaProperties properties) {
+        this.delegate = delegate;
+        this.source = source;
+        this.properties = properties;
+    }
+
+    /**
+     * Starts the bootstrap scan and the periodic syncs after it. A sync that fails leaves the previous copy in
+     * place, to be served until it is older than {@code maxStaleness}.
+     */
+    public synchronized void start() {
+        if (scheduledSyncs == null) {
+            scheduledSyncs = Flux.interval(Duration.ZERO, properties.getSyncInterval())
+                    // ticks that arrive while a sync is running are dropped rather than queued
+                    .onBackpressureDrop()
+                    .flatMap(tick -> sync().onErrorResume(error -> {
+                        log.warn("Beer catalog sync failed, keeping the replica from the last successful sync",
+                                error);
+                        return Mono.empty();
+                    }), 1)
+                    .subscribe();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduledSyncs != null) {
+            scheduledSyncs.dispose();
+            scheduledSyncs = null;
+        }
+    }
+
+    /**
+     * Scans the catalog once and replaces the replica if anything changed.
+     */
+    public Mono<Void> sync() {
+        return Mono.defer(() -> {
+            long writesBefore = writes.get();
+            long started = System.nanoTime();
+            return source.listAllBeers(properties.getPageSize(), null, null, true)
+                    .collectList()
+                    .doOnNext(beers -> {
+                        BeerCatalogIndex current = index;
+                        if (current == null || changed(current.beers(), beers)) {
+                            index = new BeerCatalogIndex(beers);
+                            log.debug("Beer catalog replica rebuilt with {} beers", beers.size());
+                        }
+                        syncStartedNanos = started;
+                        syncedWrites = writesBefore;
+                        syncs.incrementAndGet();
+                    })
+                    .then();
+        });
+    }
+
+    public boolean isFresh() {
+        return index != null
+                && syncedWrites == writes.get()
+                && System.nanoTime() - syncStartedNanos <= properties.getMaxStaleness().toNanos();
+    }
+
+    /**
+     * Time since the last successful sync started, in seconds, or {@code NaN} before the bootstrap scan completes.
+     */
+    public double getSyncLagSeconds() {
+        return index == null ? Double.NaN : (System.nanoTime() - syncStartedNanos) / 1e9;
+    }
+
+    public int getSize() {
+        BeerCatalogIndex current = index;
+        return current == null ? 0 : current.size();
+    }
+
+    public long getSyncCount() {
+        return syncs.get();
+    }
+
+    /**
+     * Reads answered from the replica instead of the service.
+     */
+    public long getLocalReadCount() {
+        return localReads.get();
+    }
+
+    /**
+     * Beers whose name starts with {@code prefix}, ignoring case. Answered from the replica only, however stale,
+     * as the service cannot search by prefix; empty before the bootstrap scan completes.
+     */
+    public Flux<Beer> findByNamePrefix(String prefix) {
+        BeerCatalogIndex current = index;
+        return current == null ? Flux.empty() : Flux.fromIterable(current.byNamePrefix(prefix));
+    }
+
+    /**
+     * Beers whose name contains {@code text}, ignoring case, from the replica only like {@link #findByNamePrefix}.
+     */
+    public Flux<Beer> findByNameContaining(String text) {
+        BeerCatalogIndex current = index;
+        return current == null ? Flux.empty() : Flux.fromIterable(current.byNameContaining(text));
+    }
+
+    @Override
+    public Mono<Beer> getBeerById(UUID id, Boolean showInventoryOnHand) {
+        BeerCatalogIndex current = freshIndex();
+        if (current == null) {
+            return delegate.getBeerById(id, showInventoryOnHand);
+        }
+        return found(current.byId(id), showInventoryOnHand);
+    }
+
+    @Override
+    public Mono<Beer> getBeerByUpc(String upc) {
+        BeerCatalogIndex current = freshIndex();
+        if (current == null) {
+            return delegate.getBeerByUpc(upc);
+        }
+        return found(current.byUpc(upc), false);
+    }
+
+    @Override
+    public Mono<BeerPagedList> listBeers(Integer pageNumber, Integer pageSize, String beerName,
+                                         String beerStyle, Boolean showInventoryOnHand) {
+        BeerCatalogIndex current = isKnownStyle(beerStyle) ? freshIndex() : null;
+        if (current == null) {
+            return delegate.listBeers(pageNumber, pageSize, beerName, beerStyle, showInventoryOnHand);
+        }
+        List<Beer> matches = current.filter(beerName, style(beerStyle));
+        PageRequest pageRequest = pageRequest(pageNumber, pageSize);
+        return Mono.just(new BeerPagedList(page(matches, pageRequest, showInventoryOnHand), pageRequest,
+                matches.size()));
+    }
+
+    @Override
+    public Flux<BeerPageElement> streamBeers(Integer pageNumber, Integer pageSize, String beerName,
+                                             String beerStyle, Boolean showInventoryOnHand) {
+        BeerCatalogIndex current = isKnownStyle(beerStyle) ? freshIndex() : null;
+        if (current == null) {
+            return delegate.streamBeers(pageNumber, pageSize, beerName, beerStyle, showInventoryOnHand);
+        }
+        List<Beer> matches = current.filter(beerName, style(beerStyle));
+        PageRequest pageRequest = pageRequest(pageNumber, pageSize);
+        List<Beer> content = page(matches, pageRequest, showInventoryOnHand);
+        int totalPages = (matches.size() + pageRequest.getPageSize() - 1) / pageRequest.getPageSize();
+        BeerPageMetadata metadata = BeerPageMetadata.builder()
+                .number(pageRequest.getPageNumber())
+                .size(pageRequest.getPageSize())
+                .totalElements(matches.size())
+                .totalPages(totalPages)
+                .first(pageRequest.getPageNumber() == 0)
+                .last(pageRequest.getPageNumber() >= totalPages - 1)
+                .numberOfElements(content.size())
+                .build();
+        return Flux.fromIterable(content).map(BeerPageElement::of).concatWithValues(BeerPageElement.of(metadata));
+    }
+
+    @Override
+    public Flux<Beer> listAllBeers(Integer pageSize, String beerName, String beerStyle, Boolean showInventoryOnHand) {
+        BeerCatalogIndex current = isKnownStyle(beerStyle) ? freshIndex() : null;
+        if (current == null) {
+            return delegate.listAllBeers(pageSize, beerName, beerStyle, showInventoryOnHand);
+        }
+        return Flux.fromIterable(current.filter(beerName, style(beerStyle)))
+                .map(beer -> withInventory(beer, showInventoryOnHand));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> createNewBeer(Beer beer) {
+        return afterWrite(delegate.createNewBeer(beer));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> updateBeerById(UUID beerId, Beer beer) {
+        return afterWrite(delegate.updateBeerById(beerId, beer));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> deleteBeerById(UUID id) {
+        return afterWrite(delegate.deleteBeerById(id));
+    }
+
+    private BeerCatalogIndex freshIndex() {
+        if (!isFresh()) {
+            return null;
+        }
+        localReads.incrementAndGet();
+        return index;
+    }
+
+    /**
+     * Reads stay with the service until a sync that started after this write completes, whatever its outcome, as
+     * a failed or cancelled write may still have been applied.
+     */
+    private <T> Mono<T> afterWrite(Mono<T> write) {
+        return write.doOnTerminate(writes::incrementAndGet).doOnCancel(writes::incrementAndGet);
+    }
+
+    /**
+     * Compares whole beers, not just their versions: inventory changes do not move {@code lastUpdatedDate}.
+     */
+    private static boolean changed(List<Beer> current, List<Beer> scanned) {
+        return !current.equals(scanned);
+    }
+
+    private static boolean isKnownStyle(String beerStyle) {
+        return beerStyle == null
+                || Arrays.stream(BeerStyle.values()).anyMatch(style -> style.name().equals(beerStyle));
+    }
+
+    private static BeerStyle style(String beerStyle) {
+        return beerStyle == null ? null : BeerStyle.valueOf(beerStyle);
+    }
+
+    private static PageRequest pageRequest(Integer pageNumber, Integer pageSize) {
+        return PageRequest.of(pageNumber == null ? 0 : pageNumber, pageSize == null ? DEFAULT_PAGE_SIZE : pageSize);
+    }
+
+    private static List<Beer> page(List<Beer> matches, PageRequest pageRequest, Boolean showInventoryOnHand) {
+        long offset = pageRequest.getOffset();
+        if (offset >= matches.size()) {
+            return Collections.emptyList();
+        }
+        return matches.subList((int) offset, (int) Math.min(matches.size(), offset + pageRequest.getPageSize()))
+                .stream()
+                .map(beer -> withInventory(beer, showInventoryOnHand))
+                .collect(Collectors.toList());
+    }
+
+    private static Mono<Beer> found(Beer beer, Boolean showInventoryOnHand) {
+        if (beer == null) {
+            return Mono.error(() -> WebClientResponseException.create(HttpStatus.NOT_FOUND.value(),
+                    HttpStatus.NOT_FOUND.getReasonPhrase(), HttpHeaders.EMPTY, new byte[0], null));
+        }
+        return Mono.just(withInventory(beer, showInventoryOnHand));
+    }
+
+    private static Beer withInventory(Beer beer, Boolean showInventoryOnHand) {
+        return Boolean.TRUE.equals(showInventoryOnHand) || beer.getQuantityOnHand() == null
+                ? beer
+                : beer.toBuilder().quantityOnHand(null).build();
+    }
+}
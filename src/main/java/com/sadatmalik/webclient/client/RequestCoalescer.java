@@ -0,0 +1,63 @@
+package com.sadatmalik.webclient.client;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight deduplication of concurrent calls: subscribers asking for the same key while a call is in
+ * flight share its one upstream subscription and result. Once the call terminates the key is released, so
+ * later subscribers trigger a fresh call. The shared call is not cancelled when one of its subscribers cancels.
+ */
+public class RequestCoalescer<K, V> {
+
+    private final ConcurrentMap<K, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            calls.increment();
+            InFlight existing = inFlight.get(key);
+            if (existing == null) {
+                InFlight candidate = new InFlight(key, call.get());
+                existing = inFlight.putIfAbsent(key, candidate);
+                if (existing == null) {
+                    return candidate.result;
+                }
+            }
+            coalesced.increment();
+            return existing.result;
+        });
+    }
+
+    /**
+     * Total number of calls made through this coalescer.
+     */
+    public long getCallCount() {
+        return calls.sum();
+    }
+
+    /**
+     * Number of calls that joined an exchange already in flight instead of starting their own.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private final class InFlight {
+
+        final Mono<V> result;
+
+        InFlight(K key, Mono<V> call) {
+            this.result = call.doFinally(signal -> inFlight.remove(key, this)).share();
+        }
+    }
+}
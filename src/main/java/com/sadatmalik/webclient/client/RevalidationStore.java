@@ -0,0 +1,113 @@
+package com.sadatmalik.webclient.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Conditional GETs backed by the last decoded payload of each read. The payload is kept together with the
+ * {@code ETag} and {@code Last-Modified} validators of its response; the next read of the same key sends them
+ * back as {@code If-None-Match} and {@code If-Modified-Since}, and a {@code 304 Not Modified} answer returns the
+ * stored payload without reading or decoding a body. Responses without validators are not stored. Each payload
+ * weighs what {@code weigher} makes of it, and entries are evicted once their total weight exceeds
+ * {@code maximumWeight}. The request is built afresh for every subscription, so the validators it carries are
+ * always those stored at the time.
+ */
+public class RevalidationStore<K> {
+
+    private final Cache<K, Validated> entries;
+    private final LongAdder notModified = new LongAdder();
+
+    public RevalidationStore(long maximumWeight, ToIntFunction<Object> weigher) {
+        this(maximumWeight, weigher, ForkJoinPool.commonPool());
+    }
+
+    RevalidationStore(long maximumWeight, ToIntFunction<Object> weigher, Executor maintenance) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((K key, Validated validated) -> weigher.applyAsInt(validated.getValue()))
+                .executor(maintenance)
+                .build();
+    }
+
+    public <T> Mono<T> read(K key, Supplier<? extends WebClient.RequestHeadersSpec<?>> requests, Class<T> type) {
+        return Mono.defer(() -> {
+            Validated stored = entries.getIfPresent(key);
+            WebClient.RequestHeadersSpec<?> request = requests.get();
+            if (stored != null) {
+                request.headers(stored::applyTo);
+            }
+            return request.exchangeToMono(response -> {
+                int status = response.rawStatusCode();
+                if (status == HttpStatus.NOT_MODIFIED.value() && stored != null) {
+                    notModified.increment();
+                    return response.releaseBody().thenReturn(type.cast(stored.getValue()));
+                }
+                if (status >= 200 && status < 300) {
+                    return response.bodyToMono(type).doOnNext(value -> store(key, response, value));
+                }
+                if (status == HttpStatus.NOT_FOUND.value()) {
+                    entries.invalidate(key);
+                }
+                return response.createException().flatMap(Mono::error);
+            });
+        });
+    }
+
+    /**
+     * Reads answered with {@code 304 Not Modified} from the stored payload.
+     */
+    public long getNotModifiedCount() {
+        return notModified.sum();
+    }
+
+    /**
+     * Drops the payload stored for {@code key}, so that its next read downloads it in full.
+     */
+    public void invalidate(K key) {
+        entries.invalidate(key);
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    private void store(K key, ClientResponse response, Object value) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        String eTag = headers.getETag();
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        if (eTag != null || lastModified != null) {
+            entries.put(key, new Validated(eTag, lastModified, value));
+        } else {
+            entries.invalidate(key);
+        }
+    }
+
+    @Value
+    private static class Validated {
+        String eTag;
+        // sent back verbatim rather than reformatted, as the server compares it literally
+        String lastModified;
+        Object value;
+
+        void applyTo(HttpHeaders headers) {
+            if (eTag != null) {
+                headers.setIfNoneMatch(eTag);
+            }
+            if (lastModified != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+        }
+    }
+}
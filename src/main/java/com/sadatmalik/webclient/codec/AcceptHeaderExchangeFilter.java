@@ -0,0 +1,54 @@
+package com.sadatmalik.webclient.codec;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Asks for the preferred {@link WireFormat}s through the {@code Accept} header, ranked by quality value in the
+ * configured order, on requests that do not set their own. JSON is always offered last if not listed, so a server
+ * without the binary formats answers in JSON. The response is decoded by whichever codec matches its
+ * {@code Content-Type}.
+ */
+public class AcceptHeaderExchangeFilter implements ExchangeFilterFunction {
+
+    private final List<MediaType> accept;
+
+    public AcceptHeaderExchangeFilter(List<WireFormat> preferredFormats) {
+        Set<WireFormat> formats = new LinkedHashSet<>(preferredFormats);
+        formats.add(WireFormat.JSON);
+        List<MediaType> mediaTypes = new ArrayList<>();
+        int rank = 0;
+        for (WireFormat format : formats) {
+            // quality drops by a tenth per rank: 1, 0.9, 0.8...
+            int tenths = Math.max(1, 10 - rank++);
+            mediaTypes.add(tenths == 10 ? format.getMediaType()
+                    : new MediaType(format.getMediaType(), Map.of("q", "0." + tenths)));
+        }
+        this.accept = Collections.unmodifiableList(mediaTypes);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!request.headers().getAccept().isEmpty()) {
+            return next.exchange(request);
+        }
+        return next.exchange(ClientRequest.from(request)
+                .headers(headers -> headers.setAccept(accept))
+                .build());
+    }
+
+    List<MediaType> getAccept() {
+        return accept;
+    }
+}
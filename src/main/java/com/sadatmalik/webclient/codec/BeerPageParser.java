@@ -0,0 +1,188 @@
+package com.sadatmalik.webclient.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerPageElement;
+import com.sadatmalik.webclient.domain.BeerPageMetadata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental parser for a single {@code /api/v1/beer} page. Bytes are fed as they arrive; each beer
+ * in {@code content} is bound as soon as its closing brace is read, and nested objects other than the
+ * content (such as {@code pageable} and {@code sort}) are skipped token by token without building trees.
+ * Formats whose Jackson factory cannot parse asynchronously, such as CBOR, are buffered and parsed the same way
+ * once the body has ended. Not thread-safe: one instance per response body.
+ */
+class BeerPageParser {
+
+    private static final int ROOT_DEPTH = 1;
+    private static final int CONTENT_DEPTH = 2;
+
+    private final ObjectMapper objectMapper;
+    private final ByteArrayFeeder feeder;
+    private final ByteArrayOutputStream buffered;
+    private final boolean binary;
+    private JsonParser parser;
+    private final BeerPageMetadata.BeerPageMetadataBuilder metadata = BeerPageMetadata.builder();
+
+    private int depth;
+    private String fieldName;
+    private boolean inContent;
+    private int skipUntilDepth = -1;
+    private TokenBuffer beerTokens;
+
+    BeerPageParser(ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.binary = objectMapper.getFactory().canHandleBinaryNatively();
+        if (objectMapper.getFactory().canParseAsync()) {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+            this.buffered = null;
+        } else {
+            this.feeder = null;
+            this.buffered = new ByteArrayOutputStream();
+        }
+    }
+
+    /**
+     * Feeds the next chunk of the body and returns the beers completed by it.
+     */
+    List<BeerPageElement> feed(byte[] bytes) throws IOException {
+        if (feeder == null) {
+            buffered.write(bytes);
+            return new ArrayList<>();
+        }
+        feeder.feedInput(bytes, 0, bytes.length);
+        return parseAvailable();
+    }
+
+    /**
+     * Signals the end of the body and returns the trailing metadata element.
+     */
+    List<BeerPageElement> endOfInput() throws IOException {
+        if (feeder == null) {
+            parser = objectMapper.getFactory().createParser(buffered.toByteArray());
+        } else {
+            feeder.endOfInput();
+        }
+        List<BeerPageElement> elements = parseAvailable();
+        if (depth != 0) {
+            throw new IOException("Unexpected end of beer page body");
+        }
+        elements.add(BeerPageElement.of(metadata.build()));
+        return elements;
+    }
+
+    private List<BeerPageElement> parseAvailable() throws IOException {
+        List<BeerPageElement> elements = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            Beer beer = onToken(token);
+            if (beer != null) {
+                elements.add(BeerPageElement.of(beer));
+            }
+        }
+        return elements;
+    }
+
+    private Beer onToken(JsonToken token) throws IOException {
+        if (token.isStructStart()) {
+            depth++;
+        } else if (token.isStructEnd()) {
+            depth--;
+        }
+
+        if (skipUntilDepth >= 0) {
+            if (depth == skipUntilDepth) {
+                skipUntilDepth = -1;
+            }
+            return null;
+        }
+
+        if (beerTokens != null) {
+            copyCurrentEvent(token);
+            if (depth == CONTENT_DEPTH) {
+                Beer beer = objectMapper.readValue(beerTokens.asParser(objectMapper), Beer.class);
+                beerTokens = null;
+                return beer;
+            }
+            return null;
+        }
+
+        if (inContent) {
+            if (token == JsonToken.START_OBJECT) {
+                beerTokens = new TokenBuffer(objectMapper, false);
+                beerTokens.writeStartObject();
+            } else if (token == JsonToken.END_ARRAY) {
+                inContent = false;
+            }
+            return null;
+        }
+
+        if (depth == ROOT_DEPTH && token == JsonToken.FIELD_NAME) {
+            fieldName = parser.getCurrentName();
+        } else if (depth == ROOT_DEPTH + 1 && token.isStructStart()) {
+            if ("content".equals(fieldName) && token == JsonToken.START_ARRAY) {
+                inContent = true;
+            } else {
+                skipUntilDepth = ROOT_DEPTH;
+            }
+        } else if (depth == ROOT_DEPTH && token.isScalarValue()) {
+            readMetadataField(token);
+        }
+        return null;
+    }
+
+    private void copyCurrentEvent(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            // keep prices exact rather than round-tripping through double; text numbers stay text so that the
+            // beer's fixed-point price is read from the digits without building a BigDecimal first
+            if (binary) {
+                beerTokens.writeNumber(parser.getDecimalValue());
+            } else {
+                beerTokens.writeNumber(parser.getText());
+            }
+        } else {
+            beerTokens.copyCurrentEvent(parser);
+        }
+    }
+
+    private void readMetadataField(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL || fieldName == null) {
+            return;
+        }
+        switch (fieldName) {
+            case "number":
+                metadata.number(parser.getIntValue());
+                break;
+            case "size":
+                metadata.size(parser.getIntValue());
+                break;
+            case "totalElements":
+                metadata.totalElements(parser.getLongValue());
+                break;
+            case "totalPages":
+                metadata.totalPages(parser.getIntValue());
+                break;
+            case "first":
+                metadata.first(parser.getBooleanValue());
+                break;
+            case "last":
+                metadata.last(parser.getBooleanValue());
+                break;
+            case "numberOfElements":
+                metadata.numberOfElements(parser.getIntValue());
+                break;
+            default:
+                break;
+        }
+    }
+}
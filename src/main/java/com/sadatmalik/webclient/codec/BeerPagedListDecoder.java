@@ -0,0 +1,137 @@
+package com.sadatmalik.webclient.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerPageElement;
+import com.sadatmalik.webclient.domain.BeerPageMetadata;
+import com.sadatmalik.webclient.domain.BeerPagedList;
+import com.sadatmalik.webclient.timing.RequestTimings;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming decoder for {@code /api/v1/beer} page responses. Decodes to {@link BeerPageElement}s, one per beer
+ * as soon as it has been read followed by the page metadata, or to a whole {@link BeerPagedList}. Unlike the
+ * default Jackson decoder the body is never aggregated in memory and {@code pageable}/{@code sort} are skipped.
+ * One instance handles one {@link WireFormat}, given by the {@code ObjectMapper} and MIME types it is created with.
+ */
+public class BeerPagedListDecoder extends AbstractDecoder<Object> {
+
+    private final ObjectMapper objectMapper;
+    private final DecodeListener decodeListener;
+
+    public BeerPagedListDecoder(ObjectMapper objectMapper) {
+        this(objectMapper, DecodeListener.NONE);
+    }
+
+    public BeerPagedListDecoder(ObjectMapper objectMapper, DecodeListener decodeListener) {
+        this(objectMapper, decodeListener, MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+    }
+
+    public BeerPagedListDecoder(ObjectMapper objectMapper, DecodeListener decodeListener, MimeType... mimeTypes) {
+        super(mimeTypes);
+        this.objectMapper = objectMapper;
+        this.decodeListener = decodeListener;
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        Class<?> clazz = elementType.toClass();
+        return (clazz == BeerPagedList.class || clazz == BeerPageElement.class) && super.canDecode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<Object> decode(Publisher<DataBuffer> input, ResolvableType elementType,
+                               @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (elementType.toClass() == BeerPagedList.class) {
+            return toPagedList(decodeElements(input)).flux();
+        }
+        return decodeElements(input).cast(Object.class);
+    }
+
+    @Override
+    public Mono<Object> decodeToMono(Publisher<DataBuffer> input, ResolvableType elementType,
+                                     @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (elementType.toClass() == BeerPagedList.class) {
+            return toPagedList(decodeElements(input));
+        }
+        return decodeElements(input).cast(Object.class).next();
+    }
+
+    private Flux<BeerPageElement> decodeElements(Publisher<DataBuffer> input) {
+        return Flux.deferContextual(context -> {
+            BeerPageParser parser = newParser();
+            RequestTimings timings = RequestTimings.from(context);
+            // decoding is spread over the chunks of the body, so its time is summed chunk by chunk
+            long[] decodeNanos = new long[1];
+            return Flux.from(input)
+                    .concatMapIterable(buffer -> {
+                        long start = System.nanoTime();
+                        try {
+                            byte[] bytes = new byte[buffer.readableByteCount()];
+                            buffer.read(bytes);
+                            return parser.feed(bytes);
+                        } catch (IOException e) {
+                            throw new DecodingException("Beer page decoding error: " + e.getMessage(), e);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                            decodeNanos[0] += System.nanoTime() - start;
+                        }
+                    })
+                    .concatWith(Flux.defer(() -> {
+                        long start = System.nanoTime();
+                        try {
+                            List<BeerPageElement> trailing = parser.endOfInput();
+                            long nanos = decodeNanos[0] + System.nanoTime() - start;
+                            decodeListener.decoded(BeerPagedList.class, nanos);
+                            if (timings != null) {
+                                timings.decoded(nanos);
+                            }
+                            return Flux.fromIterable(trailing);
+                        } catch (IOException e) {
+                            return Flux.error(new DecodingException("Beer page decoding error: " + e.getMessage(), e));
+                        }
+                    }));
+        });
+    }
+
+    private Mono<Object> toPagedList(Flux<BeerPageElement> elements) {
+        return Mono.defer(() -> {
+            List<Beer> content = new ArrayList<>();
+            return elements.<BeerPageMetadata>handle((element, sink) -> {
+                        if (element.isBeer()) {
+                            content.add(element.getBeer());
+                        } else {
+                            sink.next(element.getMetadata());
+                        }
+                    })
+                    .last()
+                    .map(metadata -> new BeerPagedList(content,
+                            PageRequest.of(metadata.getNumber(), Math.max(metadata.getSize(), 1)),
+                            metadata.getTotalElements()));
+        });
+    }
+
+    private BeerPageParser newParser() {
+        try {
+            return new BeerPageParser(objectMapper);
+        } catch (IOException e) {
+            throw new DecodingException("Failed to create beer page parser", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.sadatmalik.webclient.codec;
+
+import com.sadatmalik.webclient.timing.RequestTimings;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Told how long each response body took to decode, excluding the time spent waiting for its bytes.
+ */
+@FunctionalInterface
+public interface DecodeListener {
+
+    DecodeListener NONE = (targetType, nanos) -> { };
+
+    void decoded(Class<?> targetType, long nanos);
+
+    /**
+     * Runs {@code decode}, reporting its time here and to the {@link RequestTimings} carried by {@code hints}.
+     */
+    default <T> T timed(Class<?> targetType, @Nullable Map<String, Object> hints, Supplier<T> decode) {
+        long start = System.nanoTime();
+        try {
+            return decode.get();
+        } finally {
+            long nanos = System.nanoTime() - start;
+            decoded(targetType, nanos);
+            RequestTimings.decoded(hints, nanos);
+        }
+    }
+}
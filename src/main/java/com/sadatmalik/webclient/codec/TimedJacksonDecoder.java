@@ -0,0 +1,76 @@
+package com.sadatmalik.webclient.codec;
+
+import com.sadatmalik.webclient.timing.RequestTimings;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.HttpMessageDecoder;
+import org.springframework.http.codec.json.AbstractJackson2Decoder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Jackson decoder of any wire format, reporting the time taken to bind each aggregated body to a
+ * {@link DecodeListener} and to the {@link RequestTimings} of the exchange, if it is timed. Streamed bodies are
+ * decoded by the delegate untimed. The delegate keeps its own {@code maxInMemorySize}.
+ */
+public class TimedJacksonDecoder implements HttpMessageDecoder<Object> {
+
+    private final AbstractJackson2Decoder delegate;
+    private final DecodeListener decodeListener;
+
+    public TimedJacksonDecoder(AbstractJackson2Decoder delegate, DecodeListener decodeListener) {
+        this.delegate = delegate;
+        this.decodeListener = decodeListener;
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        return delegate.canDecode(elementType, mimeType);
+    }
+
+    @Override
+    public List<MimeType> getDecodableMimeTypes() {
+        return delegate.getDecodableMimeTypes();
+    }
+
+    @Override
+    public List<MimeType> getDecodableMimeTypes(ResolvableType targetType) {
+        return delegate.getDecodableMimeTypes(targetType);
+    }
+
+    @Override
+    public Flux<Object> decode(Publisher<DataBuffer> input, ResolvableType elementType,
+                               @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        return delegate.decode(input, elementType, mimeType, hints);
+    }
+
+    @Override
+    public Mono<Object> decodeToMono(Publisher<DataBuffer> input, ResolvableType elementType,
+                                     @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        return RequestTimings.withHint(hints, timedHints -> DataBufferUtils.join(input, delegate.getMaxInMemorySize())
+                .flatMap(dataBuffer -> Mono.justOrEmpty(decode(dataBuffer, elementType, mimeType, timedHints))));
+    }
+
+    @Override
+    public Object decode(DataBuffer dataBuffer, ResolvableType targetType, @Nullable MimeType mimeType,
+                         @Nullable Map<String, Object> hints) throws DecodingException {
+        return decodeListener.timed(targetType.toClass(), hints,
+                () -> delegate.decode(dataBuffer, targetType, mimeType, hints));
+    }
+
+    @Override
+    public Map<String, Object> getDecodeHints(ResolvableType actualType, ResolvableType elementType,
+                                              ServerHttpRequest request, ServerHttpResponse response) {
+        return delegate.getDecodeHints(actualType, elementType, request, response);
+    }
+}
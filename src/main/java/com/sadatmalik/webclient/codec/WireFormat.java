@@ -0,0 +1,24 @@
+package com.sadatmalik.webclient.codec;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Response body formats the beer client can decode. The binary formats encode the same Jackson data model as
+ * JSON, so the same domain classes bind from any of them.
+ */
+public enum WireFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    SMILE(new MediaType("application", "x-jackson-smile")),
+    CBOR(MediaType.APPLICATION_CBOR);
+
+    private final MediaType mediaType;
+
+    WireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,25 @@
+package com.sadatmalik.webclient.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the optional micro-batcher that gathers single beer lookups from concurrent callers into batches.
+ */
+@Data
+@ConfigurationProperties(prefix = "webclient.batch")
+public class BeerBatchProperties {
+
+    private boolean enabled = false;
+
+    // a batch is sent once it holds this many distinct lookups
+    private int maxBatchSize = 50;
+
+    // or once its first lookup has waited this long, whichever comes first
+    private Duration maxWait = Duration.ofMillis(5);
+
+    // lookups of one batch in flight at once, as the service has no batch endpoint to send them in one request
+    private int concurrency = 16;
+}
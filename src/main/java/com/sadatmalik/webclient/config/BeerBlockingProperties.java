@@ -0,0 +1,23 @@
+package com.sadatmalik.webclient.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the synchronous facade over the beer client and the threads it runs blocking tasks on.
+ */
+@Data
+@ConfigurationProperties(prefix = "webclient.blocking")
+public class BeerBlockingProperties {
+
+    // longest a blocking call waits for its result, listAllBeers included
+    private Duration timeout = Duration.ofSeconds(60);
+
+    // one virtual thread per task on Java 21 and later
+    private boolean virtualThreads = true;
+
+    // pool size when virtual threads are off or unavailable
+    private int platformThreads = 200;
+}
@@ -0,0 +1,26 @@
+package com.sadatmalik.webclient.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the optional read-through cache in front of the beer client.
+ */
+@Data
+@ConfigurationProperties(prefix = "webclient.cache")
+public class BeerCacheProperties {
+
+    private boolean enabled = false;
+
+    // entries are dropped this long after they were loaded
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    // entries read this long after they were loaded are reloaded in the background
+    private Duration refreshAfter = Duration.ofMinutes(1);
+
+    private long maximumBeers = 1_000;
+
+    private long maximumPages = 100;
+}
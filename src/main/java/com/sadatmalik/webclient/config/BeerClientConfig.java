@@ -0,0 +1,85 @@
+package com.sadatmalik.webclient.config;
+
+import com.sadatmalik.webclient.client.BatchingBeerClient;
+import com.sadatmalik.webclient.client.BeerClient;
+import com.sadatmalik.webclient.client.BeerClientImpl;
+import com.sadatmalik.webclient.client.BlockingBeerClient;
+import com.sadatmalik.webclient.client.CachingBeerClient;
+import com.sadatmalik.webclient.client.ReplicatedBeerClient;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+@EnableConfigurationProperties({BeerCacheProperties.class, BeerBatchProperties.class, BeerReplicaProperties.class,
+        BeerBlockingProperties.class, BeerLoadProperties.class})
+public class BeerClientConfig {
+
+    /**
+     * The client handed to callers: {@link BeerClientImpl} wrapped, innermost first, by the micro-batcher, the
+     * cache and the catalog replica when they are enabled, so cache hits never wait for a batch window. The replica
+     * scans {@link BeerClientImpl} directly, never the cache, and is closed with the context.
+     * <p>
+     * The client meters are registered here rather than by {@code MeterBinder} beans: binders are applied while
+     * the registry is created, and the registry is needed to build the {@code WebClient} behind these clients.
+     */
+    @Bean
+    @Primary
+    public BeerClient beerClient(BeerClientImpl beerClientImpl, BeerCacheProperties cacheProperties,
+                                 BeerBatchProperties batchProperties, BeerReplicaProperties replicaProperties,
+                                 MeterRegistry meterRegistry) {
+        bindLookupMetrics(beerClientImpl, meterRegistry);
+        BeerClient beerClient = beerClientImpl;
+        if (batchProperties.isEnabled()) {
+            beerClient = new BatchingBeerClient(beerClient, batchProperties);
+        }
+        if (cacheProperties.isEnabled()) {
+            beerClient = new CachingBeerClient(beerClient, cacheProperties);
+        }
+        if (replicaProperties.isEnabled()) {
+            ReplicatedBeerClient replica = new ReplicatedBeerClient(beerClient, beerClientImpl, replicaProperties);
+            bindReplicaMetrics(replica, meterRegistry);
+            replica.start();
+            beerClient = replica;
+        }
+        return beerClient;
+    }
+
+    @Bean(destroyMethod = "close")
+    public BlockingBeerClient blockingBeerClient(BeerClient beerClient, BeerBlockingProperties properties) {
+        return new BlockingBeerClient(beerClient, properties);
+    }
+
+    private static void bindLookupMetrics(BeerClientImpl beerClientImpl, MeterRegistry registry) {
+        FunctionCounter.builder("beer.client.lookups", beerClientImpl, BeerClientImpl::getLookupCount)
+                .description("getBeerById and getBeerByUpc calls")
+                .register(registry);
+        FunctionCounter.builder("beer.client.lookups.coalesced", beerClientImpl,
+                        BeerClientImpl::getCoalescedLookupCount)
+                .description("Lookups that joined an identical lookup already in flight")
+                .register(registry);
+        FunctionCounter.builder("beer.client.not.modified", beerClientImpl, BeerClientImpl::getNotModifiedCount)
+                .description("Reads answered 304 Not Modified and served from the previously decoded result")
+                .register(registry);
+    }
+
+    private static void bindReplicaMetrics(ReplicatedBeerClient replica, MeterRegistry registry) {
+        Gauge.builder("beer.client.replica.lag", replica, ReplicatedBeerClient::getSyncLagSeconds)
+                .description("Time since the last successful catalog sync started")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("beer.client.replica.size", replica, ReplicatedBeerClient::getSize)
+                .description("Beers held by the catalog replica")
+                .register(registry);
+        FunctionCounter.builder("beer.client.replica.syncs", replica, ReplicatedBeerClient::getSyncCount)
+                .description("Successful catalog syncs")
+                .register(registry);
+        FunctionCounter.builder("beer.client.replica.reads", replica, ReplicatedBeerClient::getLocalReadCount)
+                .description("Reads answered from the catalog replica instead of the service")
+                .register(registry);
+    }
+}
@@ -0,0 +1,56 @@
+package com.sadatmalik.webclient.config;
+
+import com.sadatmalik.webclient.client.BeerOperation;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings for the load-generation mode, which drives the beer client at a fixed arrival rate, reports latency
+ * percentiles and achieved throughput, and exits.
+ */
+@Data
+@ConfigurationProperties(prefix = "webclient.load")
+public class BeerLoadProperties {
+
+    private boolean enabled = false;
+
+    // arrivals per second, kept up however slowly calls complete
+    private double rate = 100;
+
+    private Duration duration = Duration.ofSeconds(60);
+
+    // calls arriving this soon after the start are made but not measured
+    private Duration warmup = Duration.ofSeconds(10);
+
+    // relative weight of each operation; deletes remove beers created earlier in the run
+    private Map<BeerOperation, Integer> mix = new EnumMap<>(Map.of(
+            BeerOperation.LIST_BEERS, 20,
+            BeerOperation.GET_BEER_BY_ID, 50,
+            BeerOperation.GET_BEER_BY_UPC, 20,
+            BeerOperation.CREATE_NEW_BEER, 5,
+            BeerOperation.UPDATE_BEER_BY_ID, 5));
+
+    private int pageSize = 25;
+
+    // beers read before the run, from which lookups and updates pick
+    private int catalogSample = 1000;
+
+    // recorded traffic to replay instead of the mix, one "<offset-ms> <METHOD> <path>" line per request
+    private String replayFile;
+
+    // 2 replays the recording twice as fast
+    private double replaySpeed = 1.0;
+
+    // calls in flight beyond which further arrivals are dropped and counted, bounding memory on an overloaded run
+    private int maxOutstanding = 10_000;
+
+    // how long calls still in flight at the end are waited for; those left over are reported as incomplete
+    private Duration drainTimeout = Duration.ofSeconds(30);
+
+    // percentile distribution of all measured calls in HdrHistogram's .hgrm format, in milliseconds, if set
+    private String histogramFile;
+}
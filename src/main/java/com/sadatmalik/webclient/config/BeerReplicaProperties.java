@@ -0,0 +1,25 @@
+package com.sadatmalik.webclient.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the optional in-process replica of the beer catalog that answers reads locally.
+ */
+@Data
+@ConfigurationProperties(prefix = "webclient.replica")
+public class BeerReplicaProperties {
+
+    private boolean enabled = false;
+
+    // the catalog is rescanned this often; unchanged pages are revalidated rather than downloaded
+    private Duration syncInterval = Duration.ofSeconds(30);
+
+    // reads go to the service instead once the last successful sync started longer ago than this
+    private Duration maxStaleness = Duration.ofMinutes(2);
+
+    // page size of the scans
+    private int pageSize = 250;
+}
@@ -0,0 +1,155 @@
+package com.sadatmalik.webclient.config;
+
+import com.sadatmalik.webclient.codec.WireFormat;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transport settings for the Reactor Netty {@code HttpClient} behind the beer {@code WebClient}.
+ */
+@Data
+@ConfigurationProperties(prefix = "webclient.http")
+public class HttpClientProperties {
+
+    // HTTP11 only by default; H2C alone uses prior knowledge, H2C with HTTP11 negotiates via Upgrade
+    private List<HttpProtocol> protocols = new ArrayList<>(List.of(HttpProtocol.HTTP11));
+
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    // time allowed between writing a request and receiving its response, applied to every request
+    private Duration responseTimeout = Duration.ofSeconds(30);
+
+    // response formats to ask for, most preferred first; JSON is always accepted as the fallback
+    private List<WireFormat> wireFormats = new ArrayList<>(List.of(WireFormat.JSON));
+
+    private Compression compression = new Compression();
+
+    private EventLoop eventLoop = new EventLoop();
+
+    private Pool pool = new Pool();
+
+    private WireLog wireLog = new WireLog();
+
+    private Dns dns = new Dns();
+
+    private Warmup warmup = new Warmup();
+
+    private Timing timing = new Timing();
+
+    @Data
+    public static class Compression {
+
+        // send Accept-Encoding: gzip and inflate compressed responses; the server decides which responses to compress
+        private boolean responses = true;
+
+        // gzip request bodies; only for servers that accept Content-Encoding: gzip
+        private boolean requests = false;
+
+        // request bodies smaller than this are sent uncompressed
+        private DataSize requestThreshold = DataSize.ofKilobytes(1);
+    }
+
+    /**
+     * By default the client shares Reactor Netty's global event loops with the embedded server. With
+     * {@code threads} set it gets loops of its own, so a stalled client cannot hold up the server and the other
+     * way round.
+     */
+    @Data
+    public static class EventLoop {
+
+        // 0 shares the global loops
+        private int threads = 0;
+
+        // epoll on Linux when the native transport is on the classpath, NIO otherwise
+        private boolean preferNative = true;
+    }
+
+    @Data
+    public static class Pool {
+
+        private int maxConnections = 50;
+
+        // requests allowed to wait for a connection once all are in use; beyond this acquisition fails fast
+        private int pendingAcquireMaxCount = 500;
+
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+        // kept below the server keep-alive timeout so the client, not the server, closes idle connections
+        private Duration maxIdleTime = Duration.ofSeconds(20);
+
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        private Duration evictInBackground = Duration.ofSeconds(30);
+
+        // hand out the most recently used connection first, letting surplus connections go idle and be evicted
+        private boolean lifo = true;
+    }
+
+    /**
+     * Wire logging is active only while the {@code webclient.wire} logger is at DEBUG.
+     */
+    @Data
+    public static class WireLog {
+
+        // log one request in every N
+        private int sampleRate = 1;
+
+        private boolean headersOnly = true;
+
+        // cap on body bytes logged per direction when bodies are logged
+        private int maxBodyBytes = 1024;
+    }
+
+    /**
+     * Resolved addresses are kept and re-resolved in the background, so requests never wait on a DNS lookup once a
+     * host has been resolved. Pooled connections to an address that has gone keep being used until
+     * {@code pool.max-life-time} retires them.
+     */
+    @Data
+    public static class Dns {
+
+        private boolean enabled = false;
+
+        // how often every resolved host is looked up again; a failed lookup keeps the previous addresses
+        private Duration ttl = Duration.ofSeconds(60);
+
+        private Duration queryTimeout = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Opens connections to every endpoint before the application reports itself ready to take traffic.
+     */
+    @Data
+    public static class Warmup {
+
+        private boolean enabled = false;
+
+        // pooled connections opened to each endpoint, capped by pool.max-connections
+        private int connections = 4;
+
+        // readiness is reported after this long even if warm-up has not finished
+        private Duration timeout = Duration.ofSeconds(10);
+    }
+
+    /**
+     * Per-phase timing of every beer service call, from waiting for a connection to decoding the body. Calls
+     * slower than {@code slow-threshold} are kept, with their phases, for {@code /actuator/slowrequests}.
+     */
+    @Data
+    public static class Timing {
+
+        private boolean enabled = true;
+
+        // measured from the call's subscription to its decoded result, across retries
+        private Duration slowThreshold = Duration.ofSeconds(1);
+
+        // slow requests retained; the oldest is dropped when full
+        private int capacity = 100;
+    }
+}
@@ -0,0 +1,144 @@
+package com.sadatmalik.webclient.config;
+
+import com.sadatmalik.webclient.client.BeerOperation;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Retry, circuit breaker, bulkhead, hedging, concurrency limit and rate limit settings applied around every beer
+ * client exchange.
+ */
+@Data
+@ConfigurationProperties(prefix = "webclient.resilience")
+public class ResilienceProperties {
+
+    private Retry retry = new Retry();
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    private Hedge hedge = new Hedge();
+
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    // optional per-operation rate limits; operations without one are not rate limited
+    private Map<BeerOperation, RateLimit> rateLimits = new EnumMap<>(BeerOperation.class);
+
+    /**
+     * Retries apply to idempotent methods only, on transport errors, timeouts and 5xx responses other than 501.
+     */
+    @Data
+    public static class Retry {
+
+        // attempts including the first; 1 disables retries
+        private int maxAttempts = 3;
+
+        private Duration initialBackoff = Duration.ofMillis(100);
+
+        private Duration maxBackoff = Duration.ofSeconds(2);
+
+        // fraction of each backoff that is randomised, so clients failing together do not retry together
+        private double jitter = 0.5;
+
+        // retries earned per original call; bounds retry amplification while the backend is down
+        private double budgetRatio = 0.2;
+
+        // retries available before any have been earned
+        private int budgetBurst = 10;
+    }
+
+    /**
+     * One breaker per endpoint, over a count-based window of its most recent calls.
+     */
+    @Data
+    public static class CircuitBreaker {
+
+        private int slidingWindowSize = 20;
+
+        // calls in the window before the failure rate is acted on
+        private int minimumCalls = 10;
+
+        // percentage of failed calls that opens the breaker
+        private int failureRateThreshold = 50;
+
+        // how long an open breaker rejects calls before letting trial calls through
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        // trial calls allowed while half open; all must succeed for the breaker to close
+        private int halfOpenCalls = 3;
+    }
+
+    @Data
+    public static class Bulkhead {
+
+        // calls per operation in flight at once, retries and hedges included; calls beyond this are rejected
+        private int maxConcurrentCalls = 64;
+    }
+
+    @Data
+    public static class Hedge {
+
+        // operations that may be hedged; only idempotent ones are, and an empty set disables hedging
+        private Set<BeerOperation> operations = EnumSet.of(BeerOperation.GET_BEER_BY_ID);
+
+        // latency percentile of the operation after which a second request is sent
+        private double percentile = 0.95;
+
+        private Duration minDelay = Duration.ofMillis(10);
+
+        // latencies observed before hedging starts
+        private int minSamples = 20;
+
+        // hedges earned per call, so a uniformly slow backend does not see its load doubled
+        private double budgetRatio = 0.1;
+
+        private int budgetBurst = 5;
+    }
+
+    /**
+     * Limit on requests in flight to the service across all operations, retries and hedges included, adjusted
+     * additively up while latency holds and multiplicatively down when it climbs or requests time out.
+     */
+    @Data
+    public static class ConcurrencyLimit {
+
+        private boolean enabled = true;
+
+        private int initialLimit = 20;
+
+        private int minLimit = 2;
+
+        private int maxLimit = 200;
+
+        // a response slower than this multiple of its operation's long-run average latency counts as congestion
+        private double rttTolerance = 2.0;
+
+        // the limit is multiplied by this on congestion
+        private double backoffRatio = 0.9;
+
+        // calls waiting for a slot once the limit is reached; calls beyond this are shed at once
+        private int maxQueueSize = 100;
+
+        // a queued call still waiting after this long is shed
+        private Duration maxQueueWait = Duration.ofMillis(500);
+
+        // operations that wait behind all others for a slot, such as catalog scans
+        private Set<BeerOperation> backgroundOperations = EnumSet.of(BeerOperation.LIST_BEERS);
+    }
+
+    @Data
+    public static class RateLimit {
+
+        private double permitsPerSecond = 100;
+
+        // calls allowed at once after a quiet period
+        private int burst = 10;
+    }
+}
@@ -1,22 +1,186 @@
 package com.sadatmalik.webclient.config;
 
-import io.netty.handler.logging.LogLevel;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sadatmalik.webclient.codec.AcceptHeaderExchangeFilter;
+import com.sadatmalik.webclient.codec.BeerPagedListDecoder;
+import com.sadatmalik.webclient.codec.RequestCompressionExchangeFilter;
+import com.sadatmalik.webclient.codec.TimedJacksonDecoder;
+import com.sadatmalik.webclient.codec.WireFormat;
+import com.sadatmalik.webclient.connection.ConnectionWarmer;
+import com.sadatmalik.webclient.connection.RefreshingAddressResolverGroup;
+import com.sadatmalik.webclient.loadbalancer.EndpointLoadBalancer;
+import com.sadatmalik.webclient.loadbalancer.LoadBalancingExchangeFilter;
+import com.sadatmalik.webclient.metrics.BeerClientMetrics;
+import com.sadatmalik.webclient.metrics.MetricsExchangeFilter;
+import com.sadatmalik.webclient.metrics.PoolMeterRegistrar;
+import com.sadatmalik.webclient.resilience.CircuitBreakerExchangeFilter;
+import com.sadatmalik.webclient.resilience.ConcurrencyLimitExchangeFilter;
+import com.sadatmalik.webclient.resilience.ResilienceExchangeFilter;
+import com.sadatmalik.webclient.timing.PhaseTimingExchangeFilter;
+import com.sadatmalik.webclient.timing.SlowRequestLog;
+import com.sadatmalik.webclient.timing.SlowRequestsEndpoint;
+import com.sadatmalik.webclient.timing.TransportPhaseRecorder;
+import com.sadatmalik.webclient.wirelog.WireLogger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.HttpResources;
 import reactor.netty.http.client.HttpClient;
-import reactor.netty.transport.logging.AdvancedByteBufFormat;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
 
 @Configuration
+@EnableConfigurationProperties({HttpClientProperties.class, WebClientProperties.class, ResilienceProperties.class})
 public class WebClientConfig {
 
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider beerConnectionProvider(HttpClientProperties properties, MeterRegistry meterRegistry) {
+        HttpClientProperties.Pool pool = properties.getPool();
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("beer-client")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(true, () -> new PoolMeterRegistrar(meterRegistry));
+        return (pool.isLifo() ? builder.lifo() : builder.fifo()).build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnExpression("${webclient.http.event-loop.threads:0} > 0")
+    public LoopResources beerLoopResources(HttpClientProperties properties) {
+        return LoopResources.create("beer-client", properties.getEventLoop().getThreads(), true);
+    }
+
+    /**
+     * Resolves the beer service hosts once and re-resolves them in the background, when DNS caching is on.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty("webclient.http.dns.enabled")
+    public RefreshingAddressResolverGroup beerAddressResolver(HttpClientProperties properties) {
+        RefreshingAddressResolverGroup addressResolver =
+                RefreshingAddressResolverGroup.create(properties.getDns(), loopResources(properties),
+                        properties.getEventLoop().isPreferNative());
+        addressResolver.start();
+        return addressResolver;
+    }
+
+    /**
+     * The transport shared by the {@code WebClient} and the connection warmer, which must use the same instance
+     * to fill the pool the {@code WebClient} draws from.
+     */
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder()
-                .clientConnector(new ReactorClientHttpConnector(HttpClient.create()
-                        .wiretap("reactor.netty.client.HttpClient", LogLevel.DEBUG,
-                                AdvancedByteBufFormat.TEXTUAL)))
-                .baseUrl(WebClientProperties.BASE_URL).build();
+    public HttpClient beerHttpClient(HttpClientProperties properties, MeterRegistry meterRegistry) {
+        WireLogger wireLogger = new WireLogger(properties.getWireLog());
+        HttpClient httpClient = HttpClient.create(beerConnectionProvider(properties, meterRegistry))
+                .runOn(loopResources(properties), properties.getEventLoop().isPreferNative())
+                .protocol(properties.getProtocols().toArray(new HttpProtocol[0]))
+                .compress(properties.getCompression().isResponses())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout())
+                .doOnRequest(wireLogger::onRequest)
+                .doAfterRequest(wireLogger::afterRequest)
+                .doOnResponse(wireLogger::onResponse);
+        if (properties.getTiming().isEnabled()) {
+            httpClient = httpClient.metrics(true, TransportPhaseRecorder::new)
+                    .doOnRequest(TransportPhaseRecorder::onRequest)
+                    .doAfterRequest(TransportPhaseRecorder::afterRequest)
+                    .doOnResponse(TransportPhaseRecorder::onResponse);
+        }
+        return properties.getDns().isEnabled() ? httpClient.resolver(beerAddressResolver(properties)) : httpClient;
+    }
+
+    @Bean
+    @ConditionalOnProperty("webclient.http.warmup.enabled")
+    public ConnectionWarmer beerConnectionWarmer(HttpClient beerHttpClient, HttpClientProperties properties,
+                                                 WebClientProperties webClientProperties,
+                                                 ObjectProvider<RefreshingAddressResolverGroup> addressResolver) {
+        return new ConnectionWarmer(beerHttpClient, webClientProperties.getEndpoints(), properties,
+                addressResolver.getIfAvailable());
+    }
+
+    private LoopResources loopResources(HttpClientProperties properties) {
+        return properties.getEventLoop().getThreads() > 0 ? beerLoopResources(properties) : HttpResources.get();
+    }
+
+    @Bean
+    public SlowRequestLog beerSlowRequestLog(HttpClientProperties properties) {
+        HttpClientProperties.Timing timing = properties.getTiming();
+        return new SlowRequestLog(timing.getSlowThreshold(), timing.getCapacity());
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "webclient.http.timing.enabled", matchIfMissing = true)
+    public SlowRequestsEndpoint beerSlowRequestsEndpoint(HttpClientProperties properties) {
+        return new SlowRequestsEndpoint(beerSlowRequestLog(properties));
+    }
+
+    @Bean
+    public EndpointLoadBalancer beerEndpointLoadBalancer(WebClientProperties properties) {
+        return new EndpointLoadBalancer(properties.getEndpoints(), properties.getLoadBalancer());
+    }
+
+    @Bean
+    public WebClient webClient(HttpClientProperties properties, WebClientProperties webClientProperties,
+                               ResilienceProperties resilienceProperties, MeterRegistry meterRegistry) {
+        BeerClientMetrics metrics = new BeerClientMetrics(meterRegistry);
+        ObjectMapper objectMapper = beerObjectMapper(Jackson2ObjectMapperBuilder.json());
+        ObjectMapper smileMapper = beerObjectMapper(Jackson2ObjectMapperBuilder.smile());
+        ObjectMapper cborMapper = beerObjectMapper(Jackson2ObjectMapperBuilder.cbor());
+        HttpClientProperties.Compression compression = properties.getCompression();
+        WebClient.Builder builder = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(beerHttpClient(properties, meterRegistry)))
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonDecoder(
+                            new TimedJacksonDecoder(new Jackson2JsonDecoder(objectMapper), metrics));
+                    // page decoders first, so pages in any format are streamed rather than bound whole
+                    configurer.customCodecs().register(new BeerPagedListDecoder(objectMapper, metrics));
+                    configurer.customCodecs().register(new BeerPagedListDecoder(smileMapper, metrics,
+                            WireFormat.SMILE.getMediaType()));
+                    configurer.customCodecs().register(new BeerPagedListDecoder(cborMapper, metrics,
+                            WireFormat.CBOR.getMediaType()));
+                    // the default Smile slot only takes a Jackson2SmileDecoder, so Smile is registered like CBOR
+                    configurer.customCodecs().register(new TimedJacksonDecoder(
+                            new Jackson2SmileDecoder(smileMapper, WireFormat.SMILE.getMediaType()), metrics));
+                    configurer.customCodecs().register(new TimedJacksonDecoder(
+                            new Jackson2CborDecoder(cborMapper, WireFormat.CBOR.getMediaType()), metrics));
+                })
+                .filter(new AcceptHeaderExchangeFilter(properties.getWireFormats()))
+                .filter(new ResilienceExchangeFilter(resilienceProperties, metrics))
+                .filter(new ConcurrencyLimitExchangeFilter(resilienceProperties, metrics))
+                .filter(new LoadBalancingExchangeFilter(beerEndpointLoadBalancer(webClientProperties),
+                        webClientProperties.getBaseUrl()))
+                .filter(new CircuitBreakerExchangeFilter(resilienceProperties.getCircuitBreaker(), metrics))
+                .filter(new MetricsExchangeFilter(metrics))
+                .baseUrl(webClientProperties.getBaseUrl().toString());
+        if (compression.isRequests()) {
+            builder.filter(new RequestCompressionExchangeFilter(compression.getRequestThreshold().toBytes()));
+        }
+        if (properties.getTiming().isEnabled()) {
+            builder.filter(new PhaseTimingExchangeFilter(beerSlowRequestLog(properties)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * A mapper for beer service bodies. A beer style added on the server after this client was built decodes to
+     * {@code null} rather than failing the beer, or the whole page it arrived in.
+     */
+    public static ObjectMapper beerObjectMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.featuresToEnable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL).build();
     }
 }
@@ -1,9 +1,55 @@
 package com.sadatmalik.webclient.config;
 
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Where the beer service lives. Requests are spread across all configured {@code endpoints} by the client-side
+ * load balancer; the API paths are fixed by the service and stay constants.
+ */
+@Data
+@ConfigurationProperties(prefix = "webclient")
 public class WebClientProperties {
 
-    public static final String BASE_URL = "http://api.springframework.guru";
+    public static final String DEFAULT_BASE_URL = "http://api.springframework.guru";
     public static final String BEER_V1_PATH = "/api/v1/beer";
     public static final String BEER_V1_PATH_GET_BY_ID = "/api/v1/beer/{uuid}";
     public static final String BEER_V1_UPC_PATH = "/api/v1/beerUpc/{upc}";
+
+    private List<URI> endpoints = new ArrayList<>(List.of(URI.create(DEFAULT_BASE_URL)));
+
+    private LoadBalancer loadBalancer = new LoadBalancer();
+
+    /**
+     * The first endpoint; relative request URIs are resolved against it before being routed.
+     */
+    public URI getBaseUrl() {
+        return endpoints.get(0);
+    }
+
+    @Data
+    public static class LoadBalancer {
+
+        private Strategy strategy = Strategy.LEAST_OUTSTANDING;
+
+        // consecutive 5xx responses or transport errors after which an endpoint is ejected
+        private int consecutiveFailures = 3;
+
+        // how long an ejected endpoint is kept out of rotation, doubled for each ejection in a row
+        private Duration baseEjectionTime = Duration.ofSeconds(10);
+
+        private Duration maxEjectionTime = Duration.ofMinutes(2);
+
+        // period over which a returning endpoint ramps up from a small share of traffic to its full share
+        private Duration slowStart = Duration.ofSeconds(30);
+    }
+
+    public enum Strategy {
+        LEAST_OUTSTANDING, POWER_OF_TWO_CHOICES
+    }
 }
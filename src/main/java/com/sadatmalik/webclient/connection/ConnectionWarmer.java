@@ -0,0 +1,87 @@
+package com.sadatmalik.webclient.connection;
+
+import com.sadatmalik.webclient.config.HttpClientProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Pays for DNS lookups, TCP connects and pool fill before the first real request. Resolves every endpoint host
+ * when DNS caching is on, then sends {@code connections} concurrent {@code HEAD} requests to each endpoint, so the
+ * pool of the shared {@code HttpClient} is left holding that many open connections. Runs as the first
+ * {@link ApplicationRunner}, and Spring Boot reports readiness only once the runners have finished, so a pod
+ * takes no traffic until warm-up has finished or timed out. A warm-up that fails or times out is logged and startup
+ * goes on: the requests that follow pay the cost instead.
+ */
+@Slf4j
+public class ConnectionWarmer implements ApplicationRunner, Ordered {
+
+    private final HttpClient httpClient;
+    private final List<URI> endpoints;
+    private final HttpClientProperties properties;
+    private final RefreshingAddressResolverGroup addressResolver;
+
+    /**
+     * @param addressResolver the resolver of {@code httpClient}, or {@code null} when DNS caching is off
+     */
+    public ConnectionWarmer(HttpClient httpClient, List<URI> endpoints, HttpClientProperties properties,
+                            RefreshingAddressResolverGroup addressResolver) {
+        this.httpClient = httpClient;
+        this.endpoints = endpoints;
+        this.properties = properties;
+        this.addressResolver = addressResolver;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        try {
+            warmUp().block(properties.getWarmup().getTimeout());
+            log.info("Connections to {} warmed up in {} ms", endpoints, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Warming up connections to {} did not complete, continuing without", endpoints, e);
+        }
+    }
+
+    public Mono<Void> warmUp() {
+        Mono<Void> resolved = addressResolver == null ? Mono.empty()
+                : addressResolver.resolve(endpoints.stream().map(URI::getHost).distinct().collect(Collectors.toList()));
+        return httpClient.warmup()
+                .then(resolved)
+                .thenMany(Flux.fromIterable(endpoints).flatMap(this::openConnections))
+                .then();
+    }
+
+    private Mono<Void> openConnections(URI endpoint) {
+        int connections = Math.min(properties.getWarmup().getConnections(), properties.getPool().getMaxConnections());
+        // each request keeps its connection until all have been answered, so none can reuse another's; a failed
+        // request cancels the others, releasing theirs
+        AtomicInteger answered = new AtomicInteger();
+        Sinks.Empty<Void> allAnswered = Sinks.empty();
+        return Flux.range(0, connections)
+                .flatMap(i -> httpClient.head()
+                        .uri(endpoint.resolve("/"))
+                        .response((response, body) -> body.then(Mono.defer(() -> {
+                            if (answered.incrementAndGet() == connections) {
+                                allAnswered.tryEmitEmpty();
+                            }
+                            return allAnswered.asMono();
+                        }))), connections)
+                .then();
+    }
+}
@@ -0,0 +1,194 @@
+package com.sadatmalik.webclient.connection;
+
+import com.sadatmalik.webclient.config.HttpClientProperties;
+import io.netty.channel.EventLoopGroup;
+import io.netty.resolver.AbstractAddressResolver;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.transport.NameResolverProvider;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves host names through Netty's asynchronous DNS resolver and keeps the answers, so a request only waits on
+ * a lookup for a host never resolved before. Every host resolved is looked up again every {@code ttl} in the
+ * background. A lookup that fails keeps the previous addresses: a possibly stale address is better than failing
+ * every request while DNS is unreachable.
+ */
+@Slf4j
+public class RefreshingAddressResolverGroup extends AddressResolverGroup<InetSocketAddress> {
+
+    // Netty does not accept zero
+    private static final Duration LOOKUP_CACHE_TTL = Duration.ofSeconds(1);
+
+    private final AddressResolverGroup<InetSocketAddress> lookups;
+    private final EventLoopGroup eventLoops;
+    private final Duration ttl;
+    private final Map<String, List<InetAddress>> addresses = new ConcurrentHashMap<>();
+    private Disposable scheduledRefreshes;
+
+    public RefreshingAddressResolverGroup(AddressResolverGroup<InetSocketAddress> lookups, EventLoopGroup eventLoops,
+                                          Duration ttl) {
+        this.lookups = lookups;
+        this.eventLoops = eventLoops;
+        this.ttl = ttl;
+    }
+
+    /**
+     * A group looking hosts up on the client event loops of {@code loops}. Netty's own cache is cut to a second,
+     * this group being the cache, so a refresh always sends a query.
+     */
+    public static RefreshingAddressResolverGroup create(HttpClientProperties.Dns settings, LoopResources loops,
+                                                        boolean preferNative) {
+        AddressResolverGroup<InetSocketAddress> lookups = NameResolverProvider.builder()
+                .cacheMaxTimeToLive(LOOKUP_CACHE_TTL)
+                .queryTimeout(settings.getQueryTimeout())
+                .build()
+                .newNameResolverGroup(loops, preferNative);
+        return new RefreshingAddressResolverGroup(lookups, loops.onClient(preferNative),
+                settings.getTtl());
+    }
+
+    /**
+     * Starts re-resolving the hosts resolved so far, and any resolved later, every {@code ttl}.
+     */
+    public synchronized void start() {
+        if (scheduledRefreshes == null) {
+            scheduledRefreshes = Flux.interval(ttl, ttl)
+                    .onBackpressureDrop()
+                    .flatMap(tick -> refresh(), 1)
+                    .subscribe();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (scheduledRefreshes != null) {
+                scheduledRefreshes.dispose();
+                scheduledRefreshes = null;
+            }
+        }
+        super.close();
+        lookups.close();
+    }
+
+    /**
+     * Looks {@code hosts} up and keeps their addresses; fails if any of them cannot be resolved.
+     */
+    public Mono<Void> resolve(Collection<String> hosts) {
+        return Flux.fromIterable(hosts).flatMap(this::lookUp).then();
+    }
+
+    /**
+     * Looks every known host up again, keeping the previous addresses of those that cannot be resolved.
+     */
+    public Mono<Void> refresh() {
+        return Flux.fromIterable(addresses.keySet())
+                .flatMap(host -> lookUp(host).onErrorResume(error -> {
+                    log.warn("Re-resolving {} failed, keeping {}", host, addresses.get(host), error);
+                    return Mono.empty();
+                }))
+                .then();
+    }
+
+    /**
+     * The addresses last resolved for {@code host}, or {@code null} if it has not been resolved.
+     */
+    public List<InetAddress> getAddresses(String host) {
+        return addresses.get(host);
+    }
+
+    @Override
+    protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+        return new CachedAddressResolver(executor);
+    }
+
+    private Mono<List<InetAddress>> lookUp(String host) {
+        return Mono.create(sink -> lookUp(host, eventLoops.next()).addListener(
+                (Future<List<InetSocketAddress>> lookup) -> {
+                    if (lookup.isSuccess()) {
+                        sink.success(remember(host, lookup.getNow()));
+                    } else {
+                        sink.error(lookup.cause());
+                    }
+                }));
+    }
+
+    private Future<List<InetSocketAddress>> lookUp(String host, EventExecutor executor) {
+        return lookups.getResolver(executor).resolveAll(InetSocketAddress.createUnresolved(host, 0));
+    }
+
+    private List<InetAddress> remember(String host, List<InetSocketAddress> resolved) {
+        List<InetAddress> hostAddresses = resolved.stream()
+                .map(InetSocketAddress::getAddress)
+                .collect(Collectors.toUnmodifiableList());
+        List<InetAddress> previous = addresses.put(host, hostAddresses);
+        if (previous != null && !previous.equals(hostAddresses)) {
+            log.info("{} now resolves to {}, was {}", host, hostAddresses, previous);
+        }
+        return hostAddresses;
+    }
+
+    private class CachedAddressResolver extends AbstractAddressResolver<InetSocketAddress> {
+
+        CachedAddressResolver(EventExecutor executor) {
+            super(executor, InetSocketAddress.class);
+        }
+
+        @Override
+        protected boolean doIsResolved(InetSocketAddress address) {
+            return !address.isUnresolved();
+        }
+
+        @Override
+        protected void doResolve(InetSocketAddress unresolved, Promise<InetSocketAddress> promise) {
+            resolveAll(unresolved, executor().newPromise()).addListener(
+                    (Future<List<InetSocketAddress>> all) -> {
+                        if (all.isSuccess()) {
+                            promise.trySuccess(all.getNow().get(0));
+                        } else {
+                            promise.tryFailure(all.cause());
+                        }
+                    });
+        }
+
+        @Override
+        protected void doResolveAll(InetSocketAddress unresolved, Promise<List<InetSocketAddress>> promise) {
+            String host = unresolved.getHostString();
+            List<InetAddress> known = addresses.get(host);
+            if (known != null) {
+                promise.trySuccess(withPort(known, unresolved.getPort()));
+                return;
+            }
+            lookUp(host, executor()).addListener((Future<List<InetSocketAddress>> lookup) -> {
+                if (lookup.isSuccess()) {
+                    promise.trySuccess(withPort(remember(host, lookup.getNow()), unresolved.getPort()));
+                } else {
+                    promise.tryFailure(lookup.cause());
+                }
+            });
+        }
+
+        private List<InetSocketAddress> withPort(List<InetAddress> hostAddresses, int port) {
+            return hostAddresses.stream()
+                    .map(address -> new InetSocketAddress(address, port))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -1,37 +1,90 @@
 package com.sadatmalik.webclient.domain;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
 import lombok.Builder;
-import lombok.Data;
-import lombok.RequiredArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Null;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
-@Data
-@RequiredArgsConstructor
-@AllArgsConstructor
-@Builder
-public class Beer {
+/**
+ * An immutable beer, bound through its constructor. Decoding resolves the style to a shared {@link BeerStyle}
+ * constant, holds the price in fixed point and keeps the dates as text until they are first read, so a decoded
+ * beer allocates little beyond its id, name and UPC. Use {@link #toBuilder()} to derive a changed copy. Beers are
+ * compared on their fields rather than their getters, so comparing one neither parses its dates nor fails on a
+ * malformed one.
+ */
+@Getter
+@EqualsAndHashCode(doNotUseGetters = true)
+@ToString
+public final class Beer {
 
     @Null
-    private UUID id;
+    private final UUID id;
 
     @NotBlank
-    private String beerName;
+    private final String beerName;
 
-    @NotBlank
-    private String beerStyle;
+    @NotNull
+    private final BeerStyle beerStyle;
+
+    private final String upc;
+
+    @Getter(AccessLevel.NONE)
+    private final FixedPointDecimal price;
+
+    private final Integer quantityOnHand;
+
+    @Getter(AccessLevel.NONE)
+    private final LazyDateTime createdDate;
+    @Getter(AccessLevel.NONE)
+    private final LazyDateTime lastUpdatedDate;
+
+    @Builder(toBuilder = true)
+    public Beer(UUID id, String beerName, BeerStyle beerStyle, String upc,
+                @Builder.ObtainVia(method = "getPrice") BigDecimal price, Integer quantityOnHand,
+                @Builder.ObtainVia(method = "getCreatedDate") OffsetDateTime createdDate,
+                @Builder.ObtainVia(method = "getLastUpdatedDate") OffsetDateTime lastUpdatedDate) {
+        this(id, beerName, beerStyle, upc, FixedPointDecimal.of(price), quantityOnHand, LazyDateTime.of(createdDate),
+                LazyDateTime.of(lastUpdatedDate));
+    }
 
-    private String upc;
+    @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+    Beer(@JsonProperty("id") UUID id,
+         @JsonProperty("beerName") String beerName,
+         @JsonProperty("beerStyle") BeerStyle beerStyle,
+         @JsonProperty("upc") String upc,
+         @JsonProperty("price") FixedPointDecimal price,
+         @JsonProperty("quantityOnHand") Integer quantityOnHand,
+         @JsonProperty("createdDate") LazyDateTime createdDate,
+         @JsonProperty("lastUpdatedDate") LazyDateTime lastUpdatedDate) {
+        this.id = id;
+        this.beerName = beerName;
+        this.beerStyle = beerStyle;
+        this.upc = upc;
+        this.price = price;
+        this.quantityOnHand = quantityOnHand;
+        this.createdDate = createdDate;
+        this.lastUpdatedDate = lastUpdatedDate;
+    }
 
-    private BigDecimal price;
+    public BigDecimal getPrice() {
+        return price == null ? null : price.toBigDecimal();
+    }
 
-    private Integer quantityOnHand;
+    public OffsetDateTime getCreatedDate() {
+        return LazyDateTime.get(createdDate);
+    }
 
-    private OffsetDateTime createdDate;
-    private OffsetDateTime lastUpdatedDate;
+    public OffsetDateTime getLastUpdatedDate() {
+        return LazyDateTime.get(lastUpdatedDate);
+    }
 }
@@ -0,0 +1,29 @@
+package com.sadatmalik.webclient.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * One element of a streamed beer page: either a {@link Beer} from the page content or, as the final
+ * element, the {@link BeerPageMetadata} of the page.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BeerPageElement {
+
+    Beer beer;
+    BeerPageMetadata metadata;
+
+    public static BeerPageElement of(Beer beer) {
+        return new BeerPageElement(beer, null);
+    }
+
+    public static BeerPageElement of(BeerPageMetadata metadata) {
+        return new BeerPageElement(null, metadata);
+    }
+
+    public boolean isBeer() {
+        return beer != null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.sadatmalik.webclient.domain;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Paging fields of a {@code /api/v1/beer} response, without the page content.
+ */
+@Value
+@Builder
+public class BeerPageMetadata {
+
+    int number;
+    int size;
+    long totalElements;
+    int totalPages;
+    boolean first;
+    boolean last;
+    int numberOfElements;
+}
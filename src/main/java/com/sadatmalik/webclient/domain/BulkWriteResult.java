@@ -0,0 +1,28 @@
+package com.sadatmalik.webclient.domain;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.http.HttpStatus;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Outcome of one item of a bulk create or update. {@code index} is the position of the item in the input, since
+ * results are emitted in completion order. A failed item carries its {@code error} and, if the server answered,
+ * the response {@code status}.
+ */
+@Value
+@Builder
+public class BulkWriteResult {
+
+    long index;
+    UUID beerId;
+    URI location;
+    HttpStatus status;
+    Throwable error;
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,107 @@
+package com.sadatmalik.webclient.domain;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import lombok.EqualsAndHashCode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * A decimal held as a {@code long} unscaled value and a scale, read straight from the characters of a JSON number
+ * so that decoding a price costs one small object rather than a {@link BigDecimal} and its intermediate copies.
+ * Values with more than 18 digits or an exponent keep a {@link BigDecimal} instead.
+ */
+@EqualsAndHashCode
+@JsonDeserialize(using = FixedPointDecimal.Deserializer.class)
+final class FixedPointDecimal {
+
+    private static final long OVERFLOW_LIMIT = (Long.MAX_VALUE - 9) / 10;
+
+    private final long unscaled;
+    private final int scale;
+    private final BigDecimal overflow;
+
+    private FixedPointDecimal(long unscaled, int scale, BigDecimal overflow) {
+        this.unscaled = unscaled;
+        this.scale = scale;
+        this.overflow = overflow;
+    }
+
+    static FixedPointDecimal of(BigDecimal value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.precision() > 18) {
+            return new FixedPointDecimal(0, 0, value);
+        }
+        return new FixedPointDecimal(value.unscaledValue().longValue(), value.scale(), null);
+    }
+
+    static FixedPointDecimal parse(char[] chars, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        long unscaled = 0;
+        int scale = 0;
+        int digits = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c == '.' && !fraction) {
+                fraction = true;
+            } else if (c >= '0' && c <= '9' && unscaled <= OVERFLOW_LIMIT) {
+                unscaled = unscaled * 10 + (c - '0');
+                digits++;
+                if (fraction) {
+                    scale++;
+                }
+            } else {
+                // exponents, overlong values and malformed input are left to BigDecimal
+                return new FixedPointDecimal(0, 0, new BigDecimal(chars, offset, length));
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Not a decimal: " + new String(chars, offset, length));
+        }
+        return new FixedPointDecimal(negative ? -unscaled : unscaled, scale, null);
+    }
+
+    BigDecimal toBigDecimal() {
+        return overflow != null ? overflow : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    static class Deserializer extends StdDeserializer<FixedPointDecimal> {
+
+        Deserializer() {
+            super(FixedPointDecimal.class);
+        }
+
+        @Override
+        public FixedPointDecimal deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            // text formats hand over their buffered digits; binary formats render the decoded number as text first
+            if (token.isNumeric() || token == JsonToken.VALUE_STRING) {
+                try {
+                    return parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                } catch (NumberFormatException e) {
+                    return (FixedPointDecimal) context.handleWeirdStringValue(FixedPointDecimal.class,
+                            parser.getText(), "not a valid decimal");
+                }
+            }
+            return (FixedPointDecimal) context.handleUnexpectedToken(FixedPointDecimal.class, parser);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.sadatmalik.webclient.domain;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * A timestamp kept as the text it was decoded from and parsed on first read. Most callers never look at a beer's
+ * dates, and parsing one builds half a dozen {@code java.time} objects. Both ISO-8601 strings and Jackson's numeric
+ * form (decimal epoch seconds, read as UTC) are accepted. A malformed value fails when it is read, not when the
+ * beer is decoded.
+ */
+@JsonDeserialize(using = LazyDateTime.Deserializer.class)
+final class LazyDateTime {
+
+    private final String text;
+    private final boolean epochSeconds;
+    private volatile OffsetDateTime value;
+
+    private LazyDateTime(String text, boolean epochSeconds, OffsetDateTime value) {
+        this.text = text;
+        this.epochSeconds = epochSeconds;
+        this.value = value;
+    }
+
+    static LazyDateTime of(OffsetDateTime value) {
+        return value == null ? null : new LazyDateTime(null, false, value);
+    }
+
+    OffsetDateTime get() {
+        OffsetDateTime result = value;
+        if (result == null) {
+            // racing readers parse the same text to equal values, so publishing either is fine
+            result = epochSeconds ? fromEpochSeconds(text) : OffsetDateTime.parse(text);
+            value = result;
+        }
+        return result;
+    }
+
+    static OffsetDateTime get(LazyDateTime dateTime) {
+        return dateTime == null ? null : dateTime.get();
+    }
+
+    /**
+     * Equal when both hold the same text, without parsing it, or otherwise when they parse to equal values. A
+     * malformed value only equals the same text, so comparing or hashing a beer never fails on its dates.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LazyDateTime)) {
+            return false;
+        }
+        LazyDateTime other = (LazyDateTime) o;
+        if (text != null && text.equals(other.text) && epochSeconds == other.epochSeconds) {
+            return true;
+        }
+        OffsetDateTime parsed = parsedOrNull();
+        return parsed != null && parsed.equals(other.parsedOrNull());
+    }
+
+    @Override
+    public int hashCode() {
+        OffsetDateTime parsed = parsedOrNull();
+        return parsed != null ? parsed.hashCode() : Objects.hash(text, epochSeconds);
+    }
+
+    private OffsetDateTime parsedOrNull() {
+        try {
+            return get();
+        } catch (DateTimeException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static OffsetDateTime fromEpochSeconds(String text) {
+        BigDecimal seconds = new BigDecimal(text);
+        long wholeSeconds = seconds.longValue();
+        int nanos = seconds.subtract(BigDecimal.valueOf(wholeSeconds)).movePointRight(9).intValue();
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(wholeSeconds, nanos), ZoneOffset.UTC);
+    }
+
+    static class Deserializer extends StdDeserializer<LazyDateTime> {
+
+        Deserializer() {
+            super(LazyDateTime.class);
+        }
+
+        @Override
+        public LazyDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_STRING) {
+                return new LazyDateTime(parser.getText(), false, null);
+            }
+            if (token.isNumeric()) {
+                return new LazyDateTime(parser.getText(), true, null);
+            }
+            return (LazyDateTime) context.handleUnexpectedToken(LazyDateTime.class, parser);
+        }
+    }
+}
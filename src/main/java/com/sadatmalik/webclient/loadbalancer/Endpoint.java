@@ -0,0 +1,97 @@
+package com.sadatmalik.webclient.loadbalancer;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One replica of the beer service as seen by the load balancer: its outstanding request count and passive
+ * health. An endpoint is ejected after too many consecutive failures and, once its ejection ends, is given
+ * a weight that ramps up over the slow-start window.
+ */
+public class Endpoint {
+
+    private static final double MIN_SLOW_START_WEIGHT = 0.1;
+
+    private final URI uri;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private int consecutiveFailures;
+    private int ejections;
+    private volatile boolean ejected;
+    private volatile long ejectedUntilNanos;
+    private volatile long slowStartFromNanos;
+    private volatile boolean slowStarting;
+
+    public Endpoint(URI uri) {
+        this.uri = uri;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public boolean isAvailable(long nowNanos) {
+        return !ejected || nowNanos - ejectedUntilNanos >= 0;
+    }
+
+    long getEjectedUntilNanos() {
+        return ejectedUntilNanos;
+    }
+
+    /**
+     * Outstanding requests scaled by the slow-start weight; the endpoint with the lowest load gets the next request.
+     */
+    double load(long nowNanos, long slowStartNanos) {
+        return (outstanding.get() + 1) / weight(nowNanos, slowStartNanos);
+    }
+
+    double weight(long nowNanos, long slowStartNanos) {
+        if (!slowStarting || slowStartNanos <= 0) {
+            return 1.0;
+        }
+        long elapsed = nowNanos - slowStartFromNanos;
+        if (elapsed >= slowStartNanos) {
+            slowStarting = false;
+            return 1.0;
+        }
+        return Math.max(MIN_SLOW_START_WEIGHT, (double) Math.max(elapsed, 0) / slowStartNanos);
+    }
+
+    void requestStarted() {
+        outstanding.incrementAndGet();
+    }
+
+    void requestFinished() {
+        outstanding.decrementAndGet();
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        ejections = 0;
+    }
+
+    synchronized void onFailure(long nowNanos, int failureThreshold, long baseEjectionNanos, long maxEjectionNanos) {
+        if (ejected && nowNanos - ejectedUntilNanos < 0) {
+            return;
+        }
+        if (++consecutiveFailures < failureThreshold) {
+            return;
+        }
+        long ejectionNanos = Math.min(maxEjectionNanos, baseEjectionNanos << Math.min(ejections, 20));
+        ejections++;
+        consecutiveFailures = 0;
+        ejectedUntilNanos = nowNanos + ejectionNanos;
+        ejected = true;
+        slowStartFromNanos = ejectedUntilNanos;
+        slowStarting = true;
+    }
+
+    @Override
+    public String toString() {
+        return uri.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.sadatmalik.webclient.loadbalancer;
+
+import com.sadatmalik.webclient.config.WebClientProperties;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Picks the endpoint for each request, either the one with the fewest outstanding requests or the less loaded
+ * of two picked at random. Ejected endpoints are skipped; if every endpoint is ejected the one due back soonest
+ * is used rather than failing the request.
+ */
+public class EndpointLoadBalancer {
+
+    private final List<Endpoint> endpoints;
+    private final WebClientProperties.LoadBalancer settings;
+    private final long slowStartNanos;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+
+    public EndpointLoadBalancer(List<URI> endpoints, WebClientProperties.LoadBalancer settings) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one beer service endpoint is required");
+        }
+        this.endpoints = Collections.unmodifiableList(endpoints.stream().map(Endpoint::new).collect(Collectors.toList()));
+        this.settings = settings;
+        this.slowStartNanos = settings.getSlowStart().toNanos();
+        this.baseEjectionNanos = settings.getBaseEjectionTime().toNanos();
+        this.maxEjectionNanos = settings.getMaxEjectionTime().toNanos();
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public Endpoint choose() {
+        if (endpoints.size() == 1) {
+            return endpoints.get(0);
+        }
+        long now = System.nanoTime();
+        if (settings.getStrategy() == WebClientProperties.Strategy.POWER_OF_TWO_CHOICES) {
+            Endpoint first = randomAvailable(now, null);
+            Endpoint second = randomAvailable(now, first);
+            if (first != null && second != null) {
+                return first.load(now, slowStartNanos) <= second.load(now, slowStartNanos) ? first : second;
+            }
+        }
+        return leastLoaded(now);
+    }
+
+    void onSuccess(Endpoint endpoint) {
+        endpoint.onSuccess();
+    }
+
+    void onFailure(Endpoint endpoint) {
+        endpoint.onFailure(System.nanoTime(), settings.getConsecutiveFailures(), baseEjectionNanos, maxEjectionNanos);
+    }
+
+    private Endpoint leastLoaded(long now) {
+        Endpoint best = null;
+        double bestLoad = Double.MAX_VALUE;
+        Endpoint soonestBack = endpoints.get(0);
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isAvailable(now)) {
+                double load = endpoint.load(now, slowStartNanos);
+                if (load < bestLoad) {
+                    best = endpoint;
+                    bestLoad = load;
+                }
+            } else if (endpoint.getEjectedUntilNanos() - soonestBack.getEjectedUntilNanos() < 0) {
+                soonestBack = endpoint;
+            }
+        }
+        return best != null ? best : soonestBack;
+    }
+
+    private Endpoint randomAvailable(long now, Endpoint exclude) {
+        int size = endpoints.size();
+        int start = ThreadLocalRandom.current().nextInt(size);
+        for (int i = 0; i < size; i++) {
+            Endpoint candidate = endpoints.get((start + i) % size);
+            if (candidate != exclude && candidate.isAvailable(now)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+package com.sadatmalik.webclient.loadbalancer;
+
+import com.sadatmalik.webclient.client.ExchangeCompletion;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Objects;
+
+/**
+ * Routes requests addressed to the base URL to the endpoint chosen by the {@link EndpointLoadBalancer}, and
+ * reports each outcome back to it: 5xx responses and transport errors (including timeouts) count as failures.
+ * An endpoint's path, if it has one, takes the place of the base URL's path in front of the request path.
+ * Requests to any other origin pass through untouched.
+ */
+public class LoadBalancingExchangeFilter implements ExchangeFilterFunction {
+
+    private final EndpointLoadBalancer loadBalancer;
+    private final URI baseUrl;
+
+    public LoadBalancingExchangeFilter(EndpointLoadBalancer loadBalancer, URI baseUrl) {
+        this.loadBalancer = loadBalancer;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!sameOrigin(request.url(), baseUrl)) {
+            return next.exchange(request);
+        }
+        return Mono.defer(() -> {
+            Endpoint endpoint = loadBalancer.choose();
+            ClientRequest routed = ClientRequest.from(request)
+                    .url(route(request.url(), endpoint.getUri()))
+                    .build();
+
+            endpoint.requestStarted();
+            // outstanding until the body has been read, which for a large page is most of the request
+            return ExchangeCompletion.whenBodyEnds(next.exchange(routed)
+                    .doOnNext(response -> {
+                        if (response.rawStatusCode() >= 500) {
+                            loadBalancer.onFailure(endpoint);
+                        } else {
+                            loadBalancer.onSuccess(endpoint);
+                        }
+                    })
+                    .doOnError(error -> loadBalancer.onFailure(endpoint)), endpoint::requestFinished);
+        });
+    }
+
+    private URI route(URI url, URI endpoint) {
+        String path = Objects.toString(url.getRawPath(), "");
+        String basePath = withoutTrailingSlash(baseUrl.getRawPath());
+        if (path.equals(basePath) || path.startsWith(basePath + "/")) {
+            path = path.substring(basePath.length());
+        }
+        return UriComponentsBuilder.fromUri(url)
+                .scheme(endpoint.getScheme())
+                .host(endpoint.getHost())
+                .port(endpoint.getPort())
+                .replacePath(withoutTrailingSlash(endpoint.getRawPath()) + path)
+                .build(true)
+                .toUri();
+    }
+
+    private static String withoutTrailingSlash(String path) {
+        return path == null || !path.endsWith("/") ? Objects.toString(path, "") : path.substring(0, path.length() - 1);
+    }
+
+    private static boolean sameOrigin(URI url, URI origin) {
+        return Objects.equals(url.getScheme(), origin.getScheme())
+                && Objects.equals(url.getHost(), origin.getHost())
+                && url.getPort() == origin.getPort();
+    }
+}
@@ -0,0 +1,19 @@
+package com.sadatmalik.webclient.loadgen;
+
+import com.sadatmalik.webclient.client.BeerClient;
+import com.sadatmalik.webclient.client.BeerOperation;
+import lombok.Value;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * One call of a load run: what to call and when it is due, relative to the start of the run.
+ */
+@Value
+public class Arrival {
+
+    long offsetNanos;
+    BeerOperation operation;
+    Function<BeerClient, Mono<?>> call;
+}
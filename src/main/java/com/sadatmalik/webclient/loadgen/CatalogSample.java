@@ -0,0 +1,79 @@
+package com.sadatmalik.webclient.loadgen;
+
+import com.sadatmalik.webclient.client.BeerClient;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerStyle;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Beers read from the service before a load run, for lookups and updates to pick from, plus the beers created
+ * during the run, which deletes remove so the catalog ends the run as it started.
+ */
+public class CatalogSample {
+
+    private final List<Beer> beers;
+    private final Queue<UUID> created = new ConcurrentLinkedQueue<>();
+
+    public CatalogSample(List<Beer> beers) {
+        if (beers.isEmpty()) {
+            throw new IllegalStateException("The beer catalog is empty; there is nothing to look up");
+        }
+        this.beers = List.copyOf(beers);
+    }
+
+    public static CatalogSample read(BeerClient beerClient, int pageSize, int size, Duration timeout) {
+        return new CatalogSample(beerClient.listAllBeers(pageSize, null, null, null)
+                .take(size)
+                .collectList()
+                .block(timeout));
+    }
+
+    public int size() {
+        return beers.size();
+    }
+
+    Beer randomBeer(Random random) {
+        return beers.get(random.nextInt(beers.size()));
+    }
+
+    int randomPage(Random random, int pageSize) {
+        return random.nextInt((beers.size() + pageSize - 1) / pageSize);
+    }
+
+    /**
+     * A beer to create or to update an existing one with.
+     */
+    static Beer newBeer(Random random) {
+        return Beer.builder()
+                .beerName("Load Test " + Integer.toHexString(random.nextInt()))
+                .beerStyle(BeerStyle.values()[random.nextInt(BeerStyle.values().length)])
+                .upc(String.format("%012d", (long) (random.nextDouble() * 1_000_000_000_000L)))
+                .price(BigDecimal.valueOf(500 + random.nextInt(1500), 2))
+                .build();
+    }
+
+    void created(ResponseEntity<Void> response) {
+        URI location = response.getHeaders().getLocation();
+        if (location != null) {
+            String path = location.getPath();
+            created.add(UUID.fromString(path.substring(path.lastIndexOf('/') + 1)));
+        }
+    }
+
+    /**
+     * A beer created earlier in the run, or a random id, answered with {@code 404}, when none is left to delete.
+     */
+    UUID takeCreated() {
+        UUID id = created.poll();
+        return id != null ? id : UUID.randomUUID();
+    }
+}
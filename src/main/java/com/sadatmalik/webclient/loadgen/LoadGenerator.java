@@ -0,0 +1,72 @@
+package com.sadatmalik.webclient.loadgen;
+
+import com.sadatmalik.webclient.client.BeerClient;
+import com.sadatmalik.webclient.config.BeerLoadProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * The load-generation mode: once the context is up, drives the beer client with the configured mix or recorded
+ * traffic through an {@link OpenLoadDriver}, logs the {@link LoadReport} and exits. The client is the one the
+ * application uses, with whatever caching, batching and limits are configured, so pools and limits can be sized
+ * from the report. Point {@code webclient.endpoints} at a stub or staging service, never at production; the
+ * {@code LoadTest} launcher of the {@code benchmark} Maven profile runs it against an in-process stub server.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty("webclient.load.enabled")
+public class LoadGenerator implements ApplicationRunner {
+
+    public static final String MARKER = "Load run finished";
+
+    private final BeerClient beerClient;
+    private final BeerLoadProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int status = 0;
+        try {
+            LoadReport report = new OpenLoadDriver(beerClient, properties).run(arrivals());
+            log.info("{}\n{}", MARKER, report.format());
+            if (properties.getHistogramFile() != null) {
+                try (PrintStream out = new PrintStream(properties.getHistogramFile())) {
+                    report.writePercentileDistribution(out);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Load run failed", e);
+            status = 1;
+        }
+        int exitCode = status;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private Iterator<Arrival> arrivals() throws IOException {
+        Random random = new Random();
+        if (properties.getReplayFile() != null) {
+            log.info("Replaying {} at {}x", properties.getReplayFile(), properties.getReplaySpeed());
+            return TrafficReplay.read(Paths.get(properties.getReplayFile()), properties.getReplaySpeed(), random)
+                    .iterator();
+        }
+        CatalogSample catalog = CatalogSample.read(beerClient, properties.getPageSize(),
+                properties.getCatalogSample(), Duration.ofMinutes(1));
+        log.info("Driving {} calls/s for {} over {} sampled beers, mix {}", properties.getRate(),
+                properties.getDuration(), catalog.size(), properties.getMix());
+        return new TrafficMix(properties, catalog, random);
+    }
+}
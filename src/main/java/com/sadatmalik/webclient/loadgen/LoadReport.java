@@ -0,0 +1,162 @@
+package com.sadatmalik.webclient.loadgen;
+
+import com.sadatmalik.webclient.client.BeerOperation;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What a load run measured: per operation, the latency of each successful call from the moment it was due, the
+ * calls that failed and those dropped for exceeding the in-flight cap, plus the calls still unfinished when the
+ * run stopped waiting. Only calls due after the warm-up are counted.
+ */
+public class LoadReport {
+
+    // the histograms resize to fit the longest latency recorded
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p99", "p99.9"};
+
+    private final Map<BeerOperation, Histogram> latencies = new EnumMap<>(BeerOperation.class);
+    private final Map<BeerOperation, LongAdder> errors = new EnumMap<>(BeerOperation.class);
+    private final Map<BeerOperation, LongAdder> dropped = new EnumMap<>(BeerOperation.class);
+    // failures by exception type, telling rejections by the client's own limits from server errors
+    private final Map<String, LongAdder> errorTypes = new ConcurrentSkipListMap<>();
+    private final LongAdder incomplete = new LongAdder();
+    private volatile long offeredNanos;
+    private volatile long measuredNanos;
+
+    LoadReport() {
+        for (BeerOperation operation : BeerOperation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+            dropped.put(operation, new LongAdder());
+        }
+    }
+
+    void succeeded(BeerOperation operation, long latencyNanos) {
+        latencies.get(operation).recordValue(latencyNanos);
+    }
+
+    void failed(BeerOperation operation, Throwable error) {
+        errors.get(operation).increment();
+        errorTypes.computeIfAbsent(error.getClass().getSimpleName(), type -> new LongAdder()).increment();
+    }
+
+    void dropped(BeerOperation operation) {
+        dropped.get(operation).increment();
+    }
+
+    void incomplete(long count) {
+        incomplete.add(count);
+    }
+
+    /**
+     * @param offeredNanos  from the end of the warm-up to the last measured arrival
+     * @param measuredNanos from the end of the warm-up to the last measured completion
+     */
+    void finished(long offeredNanos, long measuredNanos) {
+        this.offeredNanos = offeredNanos;
+        this.measuredNanos = measuredNanos;
+    }
+
+    /**
+     * Latencies of the successful calls of {@code operation}, in nanoseconds.
+     */
+    public Histogram getLatencies(BeerOperation operation) {
+        return latencies.get(operation).copy();
+    }
+
+    /**
+     * Latencies of all successful calls, in nanoseconds.
+     */
+    public Histogram getTotalLatencies() {
+        Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+        latencies.values().forEach(total::add);
+        return total;
+    }
+
+    public long getErrorCount(BeerOperation operation) {
+        return errors.get(operation).sum();
+    }
+
+    public long getErrorCount() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long getIncompleteCount() {
+        return incomplete.sum();
+    }
+
+    /**
+     * Measured arrivals per second, as scheduled.
+     */
+    public double getOfferedRate() {
+        long arrivals = getTotalLatencies().getTotalCount() + getErrorCount() + getDroppedCount()
+                + getIncompleteCount();
+        return offeredNanos == 0 ? 0 : arrivals * 1e9 / offeredNanos;
+    }
+
+    /**
+     * Successful calls per second.
+     */
+    public double getThroughput() {
+        return measuredNanos == 0 ? 0 : getTotalLatencies().getTotalCount() * 1e9 / measuredNanos;
+    }
+
+    /**
+     * A table of each operation's percentiles in milliseconds, followed by the throughput.
+     */
+    public String format() {
+        StringBuilder table = new StringBuilder(String.format("%-16s %8s %7s %8s", "operation", "ok", "errors",
+                "dropped"));
+        for (String label : PERCENTILE_LABELS) {
+            table.append(String.format(" %9s", label + " ms"));
+        }
+        table.append(String.format(" %9s%n", "max ms"));
+        for (BeerOperation operation : BeerOperation.values()) {
+            Histogram histogram = latencies.get(operation);
+            long failures = errors.get(operation).sum();
+            long drops = dropped.get(operation).sum();
+            if (histogram.getTotalCount() + failures + drops > 0) {
+                row(table, operation.getOperationName(), histogram, failures, drops);
+            }
+        }
+        row(table, "total", getTotalLatencies(), getErrorCount(), getDroppedCount());
+        table.append(String.format("offered %.1f/s, achieved %.1f/s, %d incomplete", getOfferedRate(),
+                getThroughput(), getIncompleteCount()));
+        errorTypes.forEach((type, count) -> table.append(String.format("%n%8d %s", count.sum(), type)));
+        return table.toString();
+    }
+
+    private static void row(StringBuilder table, String name, Histogram histogram, long failures, long drops) {
+        table.append(String.format("%-16s %8d %7d %8d", name, histogram.getTotalCount(), failures, drops));
+        for (double percentile : PERCENTILES) {
+            table.append(String.format(" %9.2f", millis(histogram.getValueAtPercentile(percentile))));
+        }
+        table.append(String.format(" %9.2f%n", millis(histogram.getMaxValue())));
+    }
+
+    /**
+     * The percentile distribution of all successful calls in HdrHistogram's {@code .hgrm} format, in milliseconds,
+     * for plotting with HdrHistogram's tools.
+     */
+    public void writePercentileDistribution(PrintStream out) {
+        getTotalLatencies().outputPercentileDistribution(out, (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,92 @@
+package com.sadatmalik.webclient.loadgen;
+
+import com.sadatmalik.webclient.client.BeerClient;
+import com.sadatmalik.webclient.config.BeerLoadProperties;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Makes each {@link Arrival} when it is due, whether or not earlier calls have completed, and times it from that
+ * moment. Driving the client this way, an open model, keeps a slow client from slowing the arrivals and hiding its
+ * own queueing: a closed loop that waits for each call before making the next would time only the calls it got
+ * round to, the coordinated omission that understates latency under load.
+ */
+public class OpenLoadDriver {
+
+    private final BeerClient beerClient;
+    private final BeerLoadProperties properties;
+
+    public OpenLoadDriver(BeerClient beerClient, BeerLoadProperties properties) {
+        this.beerClient = beerClient;
+        this.properties = properties;
+    }
+
+    /**
+     * Runs {@code arrivals} on the calling thread, which is held until the last is due and the calls in flight
+     * have completed or the drain timeout has passed.
+     */
+    public LoadReport run(Iterator<Arrival> arrivals) {
+        LoadReport report = new LoadReport();
+        AtomicInteger outstanding = new AtomicInteger();
+        long start = System.nanoTime();
+        long measuredFrom = start + properties.getWarmup().toNanos();
+        long lastArrival = measuredFrom;
+        AtomicLong lastCompletion = new AtomicLong(measuredFrom);
+
+        while (arrivals.hasNext()) {
+            Arrival arrival = arrivals.next();
+            long due = start + arrival.getOffsetNanos();
+            parkUntil(due);
+            boolean measured = due >= measuredFrom;
+            if (measured) {
+                lastArrival = due;
+            }
+            if (outstanding.get() >= properties.getMaxOutstanding()) {
+                if (measured) {
+                    report.dropped(arrival.getOperation());
+                }
+                continue;
+            }
+            outstanding.incrementAndGet();
+            // subscribed off this thread so building the request never delays the next arrival
+            Mono.defer(() -> arrival.getCall().apply(beerClient))
+                    .subscribeOn(Schedulers.parallel())
+                    .subscribe(null,
+                            error -> {
+                                if (measured) {
+                                    report.failed(arrival.getOperation(), error);
+                                    lastCompletion.accumulateAndGet(System.nanoTime(), Math::max);
+                                }
+                                outstanding.decrementAndGet();
+                            },
+                            () -> {
+                                if (measured) {
+                                    long now = System.nanoTime();
+                                    report.succeeded(arrival.getOperation(), now - due);
+                                    lastCompletion.accumulateAndGet(now, Math::max);
+                                }
+                                outstanding.decrementAndGet();
+                            });
+        }
+
+        long drainDeadline = System.nanoTime() + properties.getDrainTimeout().toNanos();
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(1_000_000);
+        }
+        report.incomplete(outstanding.get());
+        report.finished(lastArrival - measuredFrom, lastCompletion.get() - measuredFrom);
+        return report;
+    }
+
+    private static void parkUntil(long due) {
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
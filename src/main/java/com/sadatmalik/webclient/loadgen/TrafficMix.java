@@ -0,0 +1,103 @@
+package com.sadatmalik.webclient.loadgen;
+
+import com.sadatmalik.webclient.client.BeerClient;
+import com.sadatmalik.webclient.client.BeerOperation;
+import com.sadatmalik.webclient.config.BeerLoadProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import reactor.core.publisher.Mono;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Arrivals evenly spaced at {@code rate} per second for {@code duration}, each an operation drawn from the
+ * weighted {@code mix} with its arguments picked from a {@link CatalogSample}.
+ */
+public class TrafficMix implements Iterator<Arrival> {
+
+    private final CatalogSample catalog;
+    private final int pageSize;
+    private final Random random;
+    private final BeerOperation[] operations;
+    private final int[] cumulativeWeights;
+    private final long intervalNanos;
+    private final long count;
+    private long next;
+
+    public TrafficMix(BeerLoadProperties properties, CatalogSample catalog, Random random) {
+        this.catalog = catalog;
+        this.pageSize = properties.getPageSize();
+        this.random = random;
+        Map<BeerOperation, Integer> mix = properties.getMix();
+        this.operations = mix.entrySet().stream()
+                .filter(weight -> weight.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toArray(BeerOperation[]::new);
+        if (operations.length == 0) {
+            throw new IllegalArgumentException("webclient.load.mix gives no operation a positive weight");
+        }
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (properties.getRate() <= 0) {
+            throw new IllegalArgumentException("webclient.load.rate must be positive");
+        }
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000L / properties.getRate()));
+        this.count = properties.getDuration().toNanos() / intervalNanos;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next < count;
+    }
+
+    @Override
+    public Arrival next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        BeerOperation operation = nextOperation();
+        return new Arrival(next++ * intervalNanos, operation, call(operation));
+    }
+
+    private BeerOperation nextOperation() {
+        int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (ticket >= cumulativeWeights[i]) {
+            i++;
+        }
+        return operations[i];
+    }
+
+    private Function<BeerClient, Mono<?>> call(BeerOperation operation) {
+        switch (operation) {
+            case LIST_BEERS:
+                int page = catalog.randomPage(random, pageSize);
+                return client -> client.listBeers(page, pageSize, null, null, null);
+            case GET_BEER_BY_ID:
+                Beer beer = catalog.randomBeer(random);
+                return client -> client.getBeerById(beer.getId(), false);
+            case GET_BEER_BY_UPC:
+                String upc = catalog.randomBeer(random).getUpc();
+                return client -> client.getBeerByUpc(upc);
+            case CREATE_NEW_BEER:
+                Beer created = CatalogSample.newBeer(random);
+                return client -> client.createNewBeer(created).doOnNext(catalog::created);
+            case UPDATE_BEER_BY_ID:
+                Beer updated = catalog.randomBeer(random);
+                Beer update = updated.toBuilder().id(null).price(CatalogSample.newBeer(random).getPrice()).build();
+                return client -> client.updateBeerById(updated.getId(), update);
+            case DELETE_BEER_BY_ID:
+                // the beer is chosen when the call is made, after the creates arriving ahead of it
+                return client -> Mono.defer(() -> client.deleteBeerById(catalog.takeCreated()));
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + operation);
+        }
+    }
+}
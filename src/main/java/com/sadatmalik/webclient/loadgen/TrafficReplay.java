@@ -0,0 +1,125 @@
+package com.sadatmalik.webclient.loadgen;
+
+import com.sadatmalik.webclient.client.BeerClient;
+import com.sadatmalik.webclient.client.BeerOperation;
+import com.sadatmalik.webclient.config.WebClientProperties;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriTemplate;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Arrivals read from a recording of beer service traffic, such as one cut from the service's access log. Each
+ * line holds the offset of a request from the start of the recording in milliseconds, its method and its path
+ * with the query string:
+ * <pre>
+ * 0 GET /api/v1/beer?pageNumber=0&amp;pageSize=25
+ * 12 GET /api/v1/beer/0a818933-087d-47f2-ad83-2f986ed087eb?showInventoryOnHand=true
+ * 15 GET /api/v1/beerUpc/0631234200036
+ * 40 POST /api/v1/beer
+ * </pre>
+ * Blank lines and lines starting with {@code #} are skipped. Recorded bodies are not replayed; creates and
+ * updates send a generated beer.
+ */
+public final class TrafficReplay {
+
+    private static final UriTemplate BEER_BY_ID = new UriTemplate(WebClientProperties.BEER_V1_PATH_GET_BY_ID);
+    private static final UriTemplate BEER_BY_UPC = new UriTemplate(WebClientProperties.BEER_V1_UPC_PATH);
+
+    private TrafficReplay() {
+    }
+
+    /**
+     * The arrivals of {@code file} in time order, with offsets divided by {@code speed}.
+     */
+    public static List<Arrival> read(Path file, double speed, Random random) throws IOException {
+        List<Arrival> arrivals = new ArrayList<>();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                arrivals.add(parse(line, speed, random));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(
+                        "Unreadable request at " + file + ":" + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        arrivals.sort(Comparator.comparingLong(Arrival::getOffsetNanos));
+        return arrivals;
+    }
+
+    private static Arrival parse(String line, double speed, Random random) {
+        String[] fields = line.split("\\s+");
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("expected \"<offset-ms> <METHOD> <path>\"");
+        }
+        long offsetNanos = (long) (Double.parseDouble(fields[0]) * 1_000_000 / speed);
+        UriComponents uri = UriComponentsBuilder.fromUriString(fields[2]).build();
+        String method = fields[1].toUpperCase();
+        String path = uri.getPath();
+        MultiValueMap<String, String> query = uri.getQueryParams();
+
+        if (WebClientProperties.BEER_V1_PATH.equals(path)) {
+            if ("GET".equals(method)) {
+                Integer pageNumber = integer(query.getFirst("pageNumber"));
+                Integer pageSize = integer(query.getFirst("pageSize"));
+                String beerName = query.getFirst("beerName");
+                String beerStyle = query.getFirst("beerStyle");
+                Boolean showInventoryOnHand = bool(query.getFirst("showInventoryOnHand"));
+                return arrival(offsetNanos, BeerOperation.LIST_BEERS, client ->
+                        client.listBeers(pageNumber, pageSize, beerName, beerStyle, showInventoryOnHand));
+            }
+            if ("POST".equals(method)) {
+                return arrival(offsetNanos, BeerOperation.CREATE_NEW_BEER,
+                        client -> client.createNewBeer(CatalogSample.newBeer(random)));
+            }
+        } else if (path != null && BEER_BY_ID.matches(path)) {
+            UUID id = UUID.fromString(BEER_BY_ID.match(path).get("uuid"));
+            switch (method) {
+                case "GET":
+                    Boolean showInventoryOnHand = bool(query.getFirst("showInventoryOnHand"));
+                    return arrival(offsetNanos, BeerOperation.GET_BEER_BY_ID,
+                            client -> client.getBeerById(id, showInventoryOnHand));
+                case "PUT":
+                    return arrival(offsetNanos, BeerOperation.UPDATE_BEER_BY_ID,
+                            client -> client.updateBeerById(id, CatalogSample.newBeer(random)));
+                case "DELETE":
+                    return arrival(offsetNanos, BeerOperation.DELETE_BEER_BY_ID,
+                            client -> client.deleteBeerById(id));
+                default:
+                    break;
+            }
+        } else if (path != null && BEER_BY_UPC.matches(path) && "GET".equals(method)) {
+            String upc = BEER_BY_UPC.match(path).get("upc");
+            return arrival(offsetNanos, BeerOperation.GET_BEER_BY_UPC, client -> client.getBeerByUpc(upc));
+        }
+        throw new IllegalArgumentException("no beer client operation for " + method + " " + path);
+    }
+
+    private static Arrival arrival(long offsetNanos, BeerOperation operation, Function<BeerClient, Mono<?>> call) {
+        return new Arrival(offsetNanos, operation, call);
+    }
+
+    private static Integer integer(String value) {
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    private static Boolean bool(String value) {
+        return value == null ? null : Boolean.valueOf(value);
+    }
+}
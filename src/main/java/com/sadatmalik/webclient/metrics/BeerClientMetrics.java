@@ -0,0 +1,85 @@
+package com.sadatmalik.webclient.metrics;
+
+import com.sadatmalik.webclient.codec.DecodeListener;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meter names and recording for the beer client. Exchanges are timed per operation with status class, outcome
+ * and endpoint tags; response payload sizes and body decode times are recorded as distributions. Retries, hedged
+ * requests and calls rejected by the resilience layer are counted per operation, and the adaptive concurrency
+ * limit is exposed with its slots in use and its queue.
+ */
+public class BeerClientMetrics implements DecodeListener {
+
+    public static final String REQUESTS = "beer.client.requests";
+    public static final String RESPONSE_SIZE = "beer.client.response.size";
+    public static final String DECODE = "beer.client.decode";
+    public static final String POOL_PREFIX = "beer.client.pool";
+    public static final String RETRIES = "beer.client.retries";
+    public static final String HEDGES = "beer.client.hedges";
+    public static final String REJECTIONS = "beer.client.rejections";
+    public static final String CONCURRENCY_LIMIT = "beer.client.concurrency.limit";
+    public static final String CONCURRENCY_IN_FLIGHT = "beer.client.concurrency.in.flight";
+    public static final String CONCURRENCY_QUEUED = "beer.client.concurrency.queued";
+
+    private final MeterRegistry registry;
+
+    public BeerClientMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    void recordExchange(String operation, String endpoint, String status, String outcome, long nanos,
+                        long responseBytes) {
+        Timer.builder(REQUESTS)
+                .description("Beer client exchanges, from request until the response body is consumed")
+                .tag("operation", operation)
+                .tag("endpoint", endpoint)
+                .tag("status", status)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (responseBytes >= 0) {
+            DistributionSummary.builder(RESPONSE_SIZE)
+                    .baseUnit(BaseUnits.BYTES)
+                    .tag("operation", operation)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(responseBytes);
+        }
+    }
+
+    @Override
+    public void decoded(Class<?> targetType, long nanos) {
+        Timer.builder(DECODE)
+                .description("Time spent binding response bodies, excluding network time")
+                .tag("type", targetType.getSimpleName())
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRetry(String operation) {
+        registry.counter(RETRIES, "operation", operation).increment();
+    }
+
+    public void recordHedge(String operation) {
+        registry.counter(HEDGES, "operation", operation).increment();
+    }
+
+    /**
+     * A call failed fast without reaching the server; {@code reason} names the guard that turned it away.
+     */
+    public void recordRejection(String operation, String reason) {
+        registry.counter(REJECTIONS, "operation", operation, "reason", reason).increment();
+    }
+}
@@ -0,0 +1,69 @@
+package com.sadatmalik.webclient.metrics;
+
+import com.sadatmalik.webclient.client.BeerOperation;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Times each exchange from the request until its response body has been consumed, and counts the body bytes.
+ * Installed after the load-balancing filter so the endpoint tag names the replica actually used.
+ */
+public class MetricsExchangeFilter implements ExchangeFilterFunction {
+
+    private final BeerClientMetrics metrics;
+
+    public MetricsExchangeFilter(BeerClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            String operation = BeerOperation.from(request).map(BeerOperation::getOperationName).orElse("none");
+            String endpoint = request.url().getAuthority();
+            AtomicBoolean recorded = new AtomicBoolean();
+
+            return next.exchange(request)
+                    .map(response -> {
+                        int status = response.rawStatusCode();
+                        AtomicLong bytes = new AtomicLong();
+                        Runnable record = () -> {
+                            if (recorded.compareAndSet(false, true)) {
+                                metrics.recordExchange(operation, endpoint, status / 100 + "xx",
+                                        Outcome.forStatus(status).name(), System.nanoTime() - start, bytes.get());
+                            }
+                        };
+                        // recorded before the caller sees the body end, however the body is consumed
+                        return response.mutate()
+                                .body(body -> body
+                                        .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                                        .doOnTerminate(record)
+                                        .doOnCancel(record))
+                                .build();
+                    })
+                    .doOnError(error -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            metrics.recordExchange(operation, endpoint,
+                                    error instanceof IOException || error.getCause() instanceof IOException
+                                            ? "IO_ERROR" : "CLIENT_ERROR",
+                                    Outcome.UNKNOWN.name(), System.nanoTime() - start, -1);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            metrics.recordExchange(operation, endpoint, "CANCELLED", Outcome.UNKNOWN.name(),
+                                    System.nanoTime() - start, -1);
+                        }
+                    });
+        });
+    }
+}
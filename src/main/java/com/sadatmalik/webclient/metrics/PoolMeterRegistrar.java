@@ -0,0 +1,48 @@
+package com.sadatmalik.webclient.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * Registers active, idle, pending and total connection gauges for each per-endpoint pool Reactor Netty creates.
+ */
+public class PoolMeterRegistrar implements ConnectionProvider.MeterRegistrar {
+
+    private final MeterRegistry registry;
+
+    public PoolMeterRegistrar(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        // gauges hold strong references: nothing else keeps the pool metrics object reachable
+        Tags tags = Tags.of("pool", poolName, "endpoint", endpoint(remoteAddress));
+        Gauge.builder(BeerClientMetrics.POOL_PREFIX + ".active", metrics, ConnectionPoolMetrics::acquiredSize)
+                .description("Connections currently leased to requests").tags(tags)
+                .strongReference(true).register(registry);
+        Gauge.builder(BeerClientMetrics.POOL_PREFIX + ".idle", metrics, ConnectionPoolMetrics::idleSize)
+                .description("Open connections waiting in the pool").tags(tags)
+                .strongReference(true).register(registry);
+        Gauge.builder(BeerClientMetrics.POOL_PREFIX + ".pending", metrics, ConnectionPoolMetrics::pendingAcquireSize)
+                .description("Requests waiting to acquire a connection").tags(tags)
+                .strongReference(true).register(registry);
+        Gauge.builder(BeerClientMetrics.POOL_PREFIX + ".total", metrics, ConnectionPoolMetrics::allocatedSize)
+                .description("Connections opened by the pool, leased or idle").tags(tags)
+                .strongReference(true).register(registry);
+    }
+
+    private static String endpoint(SocketAddress remoteAddress) {
+        if (remoteAddress instanceof InetSocketAddress) {
+            InetSocketAddress address = (InetSocketAddress) remoteAddress;
+            return address.getHostString() + ":" + address.getPort();
+        }
+        return String.valueOf(remoteAddress);
+    }
+}
@@ -0,0 +1,215 @@
+package com.sadatmalik.webclient.resilience;
+
+import com.sadatmalik.webclient.config.ResilienceProperties;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AIMD concurrency limit over round-trip times. Each response within {@code rttTolerance} times the long-run
+ * average latency of its operation raises the limit by one while at least half of it is in use; a slower response
+ * or a dropped request multiplies it by {@code backoffRatio}. Each operation is held to its own average, so a page
+ * of 250 beers is not judged against single-beer lookups. Calls beyond the limit wait in a bounded queue, interactive
+ * calls ahead of background ones and first come first served within each, and are shed with a
+ * {@link ConcurrencyLimitExceededException} when the queue is full or they have waited too long. A full queue
+ * makes room for an interactive call by shedding the most recent background waiter.
+ */
+class AdaptiveConcurrencyLimiter {
+
+    // weight of each sample in the long-run latency average, after the first few
+    private static final double RTT_SMOOTHING = 0.01;
+
+    private static final Comparator<Waiter> QUEUE_ORDER = Comparator
+            .comparing((Waiter waiter) -> waiter.background)
+            .thenComparingLong(waiter -> waiter.sequence);
+
+    private final ResilienceProperties.ConcurrencyLimit settings;
+    private final TreeSet<Waiter> queue = new TreeSet<>(QUEUE_ORDER);
+    private final Map<String, RttAverage> averages = new HashMap<>();
+    private double limit;
+    private int inFlight;
+    private long sequence;
+
+    AdaptiveConcurrencyLimiter(ResilienceProperties.ConcurrencyLimit settings) {
+        this.settings = settings;
+        this.limit = Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), settings.getInitialLimit()));
+    }
+
+    /**
+     * A permit for one request, granted at once while under the limit or after waiting in the queue.
+     */
+    Mono<Permit> acquire(String operation, boolean background) {
+        Mono<Permit> permit = Mono.create(sink -> enqueue(new Waiter(operation, background, sink)));
+        return permit.timeout(settings.getMaxQueueWait(), Mono.error(() -> shed(operation, "timed out in queue")));
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized int getQueued() {
+        return queue.size();
+    }
+
+    private void enqueue(Waiter waiter) {
+        waiter.sink.onCancel(() -> cancel(waiter));
+        Waiter displaced = null;
+        boolean granted = false;
+        boolean rejected = false;
+        synchronized (this) {
+            waiter.sequence = sequence++;
+            if (queue.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                waiter.granted = true;
+                granted = true;
+            } else if (queue.size() < settings.getMaxQueueSize()) {
+                queue.add(waiter);
+            } else if (!waiter.background && queue.last().background) {
+                displaced = queue.pollLast();
+                queue.add(waiter);
+            } else {
+                rejected = true;
+            }
+        }
+        if (granted) {
+            waiter.sink.success(new Permit(waiter.operation));
+            return;
+        }
+        if (rejected) {
+            waiter.sink.error(shed(waiter.operation, "queue full"));
+            return;
+        }
+        if (displaced != null) {
+            displaced.sink.error(shed(displaced.operation, "displaced by a higher priority call"));
+        }
+    }
+
+    private void cancel(Waiter waiter) {
+        boolean release;
+        synchronized (this) {
+            release = !queue.remove(waiter) && waiter.granted;
+        }
+        if (release) {
+            // granted as it timed out, so the permit never reached the caller
+            release(waiter.operation, -1, false);
+        }
+    }
+
+    /**
+     * Returns a slot, adjusting the limit from the round trip unless {@code rttNanos} is negative, and hands
+     * freed slots to the waiters at the head of the queue.
+     */
+    private void release(String operation, long rttNanos, boolean dropped) {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            int inFlightBefore = inFlight--;
+            if (dropped) {
+                decrease();
+            } else if (rttNanos >= 0) {
+                RttAverage average = averages.computeIfAbsent(operation, name -> new RttAverage());
+                average.add(rttNanos);
+                if (rttNanos > average.nanos * settings.getRttTolerance()) {
+                    decrease();
+                } else if (inFlightBefore * 2 >= limit) {
+                    limit = Math.min(settings.getMaxLimit(), limit + 1);
+                }
+            }
+            while (inFlight < (int) limit && !queue.isEmpty()) {
+                Waiter next = queue.pollFirst();
+                next.granted = true;
+                inFlight++;
+                granted.add(next);
+            }
+        }
+        granted.forEach(waiter -> waiter.sink.success(new Permit(waiter.operation)));
+    }
+
+    private void decrease() {
+        limit = Math.max(settings.getMinLimit(), limit * settings.getBackoffRatio());
+    }
+
+    private ConcurrencyLimitExceededException shed(String operation, String reason) {
+        return new ConcurrencyLimitExceededException(operation, getLimit(), reason);
+    }
+
+    /**
+     * One slot of the limit, returned exactly once however the request ends.
+     */
+    class Permit {
+
+        private final String operation;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(String operation) {
+            this.operation = operation;
+        }
+
+        /**
+         * The service answered; its round trip counts towards the limit.
+         */
+        void completed() {
+            if (released.compareAndSet(false, true)) {
+                release(operation, System.nanoTime() - start, false);
+            }
+        }
+
+        /**
+         * The request timed out, could not be sent or was refused as overloaded.
+         */
+        void dropped() {
+            if (released.compareAndSet(false, true)) {
+                release(operation, -1, true);
+            }
+        }
+
+        /**
+         * The request ended in a way that says nothing about load, such as being cancelled.
+         */
+        void ignored() {
+            if (released.compareAndSet(false, true)) {
+                release(operation, -1, false);
+            }
+        }
+    }
+
+    /**
+     * The long-run round trip of one operation, guarded by the limiter's lock.
+     */
+    private static class RttAverage {
+
+        double nanos;
+        long samples;
+
+        void add(long rttNanos) {
+            samples++;
+            nanos += (rttNanos - nanos) * Math.max(RTT_SMOOTHING, 1.0 / samples);
+        }
+    }
+
+    private static class Waiter {
+
+        final String operation;
+        final boolean background;
+        final MonoSink<Permit> sink;
+        long sequence;
+        boolean granted;
+
+        Waiter(String operation, boolean background, MonoSink<Permit> sink) {
+            this.operation = operation;
+            this.background = background;
+            this.sink = sink;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.sadatmalik.webclient.resilience;
+
+/**
+ * Raised without contacting the server when an operation already has its maximum number of calls in flight.
+ */
+public class BulkheadFullException extends CallRejectedException {
+
+    public BulkheadFullException(String operation, int maxConcurrentCalls) {
+        super("Bulkhead for " + operation + " is full (" + maxConcurrentCalls + " calls in flight)");
+    }
+}
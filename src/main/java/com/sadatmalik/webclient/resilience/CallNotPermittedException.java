@@ -0,0 +1,11 @@
+package com.sadatmalik.webclient.resilience;
+
+/**
+ * Raised without contacting the server when the circuit breaker of the chosen endpoint is open.
+ */
+public class CallNotPermittedException extends CallRejectedException {
+
+    public CallNotPermittedException(String endpoint) {
+        super("Circuit breaker for " + endpoint + " is open");
+    }
+}
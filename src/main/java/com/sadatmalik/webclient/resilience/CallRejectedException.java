@@ -0,0 +1,12 @@
+package com.sadatmalik.webclient.resilience;
+
+/**
+ * Base of the exceptions raised when a call is turned away on the client without being sent, so callers can
+ * tell load shedding apart from failures of the service. None of them are retried.
+ */
+public abstract class CallRejectedException extends RuntimeException {
+
+    protected CallRejectedException(String message) {
+        super(message);
+    }
+}
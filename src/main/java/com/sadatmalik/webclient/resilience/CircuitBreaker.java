@@ -0,0 +1,111 @@
+package com.sadatmalik.webclient.resilience;
+
+import com.sadatmalik.webclient.config.ResilienceProperties;
+
+/**
+ * Circuit breaker for one endpoint. While closed it tracks the outcome of the last {@code slidingWindowSize}
+ * calls and opens once their failure rate reaches the threshold; while open it rejects every call; after
+ * {@code openDuration} it half opens and lets a few trial calls through, closing if they all succeed and
+ * opening again on the first failure.
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final ResilienceProperties.CircuitBreaker settings;
+    private final boolean[] window;
+    private int next;
+    private int calls;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    CircuitBreaker(ResilienceProperties.CircuitBreaker settings) {
+        this.settings = settings;
+        this.window = new boolean[settings.getSlidingWindowSize()];
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < settings.getOpenDuration().toNanos()) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = settings.getHalfOpenCalls();
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the permission of a call that ended without an outcome, such as a cancelled one.
+     */
+    synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= settings.getHalfOpenCalls()) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (calls >= settings.getMinimumCalls()
+                    && failures * 100 >= settings.getFailureRateThreshold() * calls) {
+                open();
+            }
+        }
+    }
+
+    private void record(boolean failed) {
+        if (calls == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        calls = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,58 @@
+package com.sadatmalik.webclient.resilience;
+
+import com.sadatmalik.webclient.client.BeerOperation;
+import com.sadatmalik.webclient.config.ResilienceProperties;
+import com.sadatmalik.webclient.metrics.BeerClientMetrics;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Guards each endpoint with its own {@link CircuitBreaker}, keyed by the authority of the request URL. Placed
+ * after the load balancer, so it sees the endpoint a request was actually routed to. As with load balancing,
+ * 5xx responses and transport errors count as failures.
+ */
+public class CircuitBreakerExchangeFilter implements ExchangeFilterFunction {
+
+    private final ResilienceProperties.CircuitBreaker settings;
+    private final BeerClientMetrics metrics;
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerExchangeFilter(ResilienceProperties.CircuitBreaker settings, BeerClientMetrics metrics) {
+        this.settings = settings;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String endpoint = request.url().getAuthority();
+        CircuitBreaker breaker = breakers.computeIfAbsent(endpoint, key -> new CircuitBreaker(settings));
+        return Mono.defer(() -> {
+            if (!breaker.tryAcquirePermission()) {
+                metrics.recordRejection(BeerOperation.from(request).map(BeerOperation::getOperationName)
+                        .orElse("other"), "circuit_open");
+                return Mono.error(new CallNotPermittedException(endpoint));
+            }
+            return next.exchange(request)
+                    .doOnNext(response -> {
+                        if (response.rawStatusCode() >= 500) {
+                            breaker.onFailure();
+                        } else {
+                            breaker.onSuccess();
+                        }
+                    })
+                    .doOnError(error -> breaker.onFailure())
+                    .doOnCancel(breaker::releasePermission);
+        });
+    }
+
+    CircuitBreaker.State getState(String endpoint) {
+        CircuitBreaker breaker = breakers.get(endpoint);
+        return breaker == null ? CircuitBreaker.State.CLOSED : breaker.getState();
+    }
+}
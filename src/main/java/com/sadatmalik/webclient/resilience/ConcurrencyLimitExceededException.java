@@ -0,0 +1,13 @@
+package com.sadatmalik.webclient.resilience;
+
+/**
+ * Raised without contacting the server when the adaptive concurrency limit is reached and the call could not
+ * wait for a slot: the wait queue was full, the call was displaced from it by a higher priority one, or it waited
+ * longer than allowed.
+ */
+public class ConcurrencyLimitExceededException extends CallRejectedException {
+
+    public ConcurrencyLimitExceededException(String operation, int limit, String reason) {
+        super("Concurrency limit of " + limit + " reached for " + operation + ": " + reason);
+    }
+}
@@ -0,0 +1,97 @@
+package com.sadatmalik.webclient.resilience;
+
+import com.sadatmalik.webclient.client.BeerOperation;
+import com.sadatmalik.webclient.client.ExchangeCompletion;
+import com.sadatmalik.webclient.config.ResilienceProperties;
+import com.sadatmalik.webclient.metrics.BeerClientMetrics;
+import io.micrometer.core.instrument.Gauge;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sheds load on the client before it reaches the service. Sits below {@link ResilienceExchangeFilter}, so every
+ * request sent counts, retries and hedges included:
+ * <ul>
+ *     <li>operations with a rate limit take a token from their bucket or fail with a
+ *     {@link RateLimitExceededException};</li>
+ *     <li>every request then takes a slot of the {@link AdaptiveConcurrencyLimiter}, waiting behind other
+ *     requests of higher priority, and gives it back once the response body has been read.</li>
+ * </ul>
+ * Timeouts, connection failures and {@code 429} or {@code 503} responses count as drops and shrink the limit.
+ */
+public class ConcurrencyLimitExchangeFilter implements ExchangeFilterFunction {
+
+    private final ResilienceProperties.ConcurrencyLimit settings;
+    private final BeerClientMetrics metrics;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<BeerOperation, TokenBucket> rateLimits = new EnumMap<>(BeerOperation.class);
+
+    public ConcurrencyLimitExchangeFilter(ResilienceProperties properties, BeerClientMetrics metrics) {
+        this.settings = properties.getConcurrencyLimit();
+        this.metrics = metrics;
+        this.limiter = new AdaptiveConcurrencyLimiter(settings);
+        properties.getRateLimits().forEach((operation, rateLimit) -> rateLimits.put(operation,
+                new TokenBucket(rateLimit.getPermitsPerSecond(), rateLimit.getBurst())));
+        if (settings.isEnabled()) {
+            Gauge.builder(BeerClientMetrics.CONCURRENCY_LIMIT, limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive limit on beer client requests in flight")
+                    .register(metrics.getRegistry());
+            Gauge.builder(BeerClientMetrics.CONCURRENCY_IN_FLIGHT, limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Beer client requests holding a slot of the concurrency limit")
+                    .register(metrics.getRegistry());
+            Gauge.builder(BeerClientMetrics.CONCURRENCY_QUEUED, limiter, AdaptiveConcurrencyLimiter::getQueued)
+                    .description("Requests waiting for a slot of the concurrency limit")
+                    .register(metrics.getRegistry());
+        }
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        BeerOperation operation = BeerOperation.from(request).orElse(null);
+        String operationName = operation == null ? "other" : operation.getOperationName();
+        TokenBucket rateLimit = operation == null ? null : rateLimits.get(operation);
+
+        return Mono.defer(() -> {
+            if (rateLimit != null && !rateLimit.tryAcquire()) {
+                metrics.recordRejection(operationName, "rate-limit");
+                return Mono.error(new RateLimitExceededException(operationName, rateLimit.getPermitsPerSecond()));
+            }
+            return settings.isEnabled() ? limitedExchange(request, next, operation, operationName)
+                    : next.exchange(request);
+        });
+    }
+
+    private Mono<ClientResponse> limitedExchange(ClientRequest request, ExchangeFunction next,
+                                                 BeerOperation operation, String operationName) {
+        boolean background = operation != null && settings.getBackgroundOperations().contains(operation);
+        return limiter.acquire(operationName, background)
+                .doOnError(ConcurrencyLimitExceededException.class,
+                        shed -> metrics.recordRejection(operationName, "concurrency-limit"))
+                .flatMap(permit -> {
+                    // cancelled or completing without a response says nothing about load
+                    AtomicReference<Runnable> outcome = new AtomicReference<>(permit::ignored);
+                    Mono<ClientResponse> exchange = next.exchange(request)
+                            .doOnNext(response -> outcome.set(isOverloaded(response.rawStatusCode())
+                                    ? permit::dropped : permit::completed))
+                            .doOnError(error -> outcome.set(
+                                    error instanceof TimeoutException || error instanceof WebClientRequestException
+                                            ? permit::dropped : permit::ignored));
+                    // the slot is held, and the round trip timed, until the body has been read
+                    return ExchangeCompletion.whenBodyEnds(exchange, () -> outcome.get().run());
+                });
+    }
+
+    private static boolean isOverloaded(int status) {
+        return status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+}
@@ -0,0 +1,40 @@
+package com.sadatmalik.webclient.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Latency percentile over the most recent responses of one operation, recomputed every few samples rather
+ * than on each read.
+ */
+class LatencyTracker {
+
+    private static final int WINDOW = 256;
+    private static final int RECOMPUTE_INTERVAL = 16;
+
+    private final long[] samples = new long[WINDOW];
+    private final double percentile;
+    private final int minSamples;
+    private long count;
+    private volatile long percentileNanos = -1;
+
+    LatencyTracker(double percentile, int minSamples) {
+        this.percentile = percentile;
+        this.minSamples = Math.max(1, minSamples);
+    }
+
+    synchronized void record(long nanos) {
+        samples[(int) (count++ % WINDOW)] = nanos;
+        if (count == minSamples || (count > minSamples && count % RECOMPUTE_INTERVAL == 0)) {
+            long[] window = Arrays.copyOf(samples, (int) Math.min(count, WINDOW));
+            Arrays.sort(window);
+            percentileNanos = window[(int) Math.min(window.length - 1, Math.ceil(percentile * window.length) - 1)];
+        }
+    }
+
+    /**
+     * The tracked percentile in nanoseconds, or -1 until enough samples have been recorded.
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+}
@@ -0,0 +1,11 @@
+package com.sadatmalik.webclient.resilience;
+
+/**
+ * Raised without contacting the server when an operation has used up its rate limit.
+ */
+public class RateLimitExceededException extends CallRejectedException {
+
+    public RateLimitExceededException(String operation, double permitsPerSecond) {
+        super("Rate limit of " + permitsPerSecond + "/s exceeded for " + operation);
+    }
+}
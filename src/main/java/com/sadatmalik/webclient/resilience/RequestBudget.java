@@ -0,0 +1,30 @@
+package com.sadatmalik.webclient.resilience;
+
+/**
+ * Token bucket for extra requests: every original call earns {@code ratio} of a token, up to {@code burst}
+ * tokens, and each retry or hedge spends a whole one.
+ */
+class RequestBudget {
+
+    private final double ratio;
+    private final double burst;
+    private double tokens;
+
+    RequestBudget(double ratio, int burst) {
+        this.ratio = ratio;
+        this.burst = burst;
+        this.tokens = burst;
+    }
+
+    synchronized void deposit() {
+        tokens = Math.min(burst, tokens + ratio);
+    }
+
+    synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,155 @@
+package com.sadatmalik.webclient.resilience;
+
+import com.sadatmalik.webclient.client.BeerOperation;
+import com.sadatmalik.webclient.client.ExchangeCompletion;
+import com.sadatmalik.webclient.config.ResilienceProperties;
+import com.sadatmalik.webclient.metrics.BeerClientMetrics;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Outermost filter of the beer client, applied per {@link BeerOperation}:
+ * <ul>
+ *     <li>a bulkhead caps the calls of each operation in flight, rejecting the excess immediately;</li>
+ *     <li>idempotent calls are retried with exponential backoff and jitter on transport errors, timeouts and
+ *     5xx responses, while a shared retry budget keeps retries to a fraction of the traffic;</li>
+ *     <li>hedged operations send a second request, through the load balancer again, when the first has been
+ *     outstanding longer than the configured latency percentile, and take whichever answers first.</li>
+ * </ul>
+ * Each retry and hedge passes through the load balancer and circuit breaker below this filter.
+ */
+public class ResilienceExchangeFilter implements ExchangeFilterFunction {
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD,
+            HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.OPTIONS);
+
+    private final ResilienceProperties properties;
+    private final BeerClientMetrics metrics;
+    private final RequestBudget retryBudget;
+    private final RequestBudget hedgeBudget;
+    private final ConcurrentMap<String, OperationState> operations = new ConcurrentHashMap<>();
+
+    public ResilienceExchangeFilter(ResilienceProperties properties, BeerClientMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.retryBudget = new RequestBudget(properties.getRetry().getBudgetRatio(),
+                properties.getRetry().getBudgetBurst());
+        this.hedgeBudget = new RequestBudget(properties.getHedge().getBudgetRatio(),
+                properties.getHedge().getBudgetBurst());
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        BeerOperation operation = BeerOperation.from(request).orElse(null);
+        String operationName = operation == null ? "other" : operation.getOperationName();
+        OperationState state = operations.computeIfAbsent(operationName, key -> new OperationState());
+        boolean idempotent = IDEMPOTENT_METHODS.contains(request.method());
+        boolean retried = idempotent && properties.getRetry().getMaxAttempts() > 1;
+        boolean hedged = idempotent && operation != null && properties.getHedge().getOperations().contains(operation);
+
+        return Mono.defer(() -> {
+            if (!state.bulkhead.tryAcquire()) {
+                metrics.recordRejection(operationName, "bulkhead");
+                return Mono.error(new BulkheadFullException(operationName,
+                        properties.getBulkhead().getMaxConcurrentCalls()));
+            }
+            retryBudget.deposit();
+            if (hedged) {
+                hedgeBudget.deposit();
+            }
+
+            Mono<ClientResponse> attempt = hedged
+                    ? hedgedExchange(request, next, operationName, state)
+                    : timedExchange(request, next, state);
+            if (retried) {
+                attempt = failOnServerError(attempt).retryWhen(retry(operationName));
+            }
+            // the call holds its place until its body has been read, not just until the headers arrive
+            return ExchangeCompletion.whenBodyEnds(attempt, state.bulkhead::release);
+        });
+    }
+
+    private Mono<ClientResponse> hedgedExchange(ClientRequest request, ExchangeFunction next, String operationName,
+                                                OperationState state) {
+        return Mono.defer(() -> {
+            Mono<ClientResponse> primary = timedExchange(request, next, state);
+            long percentileNanos = state.latency.percentileNanos();
+            if (percentileNanos < 0) {
+                return primary;
+            }
+            Duration delay = Duration.ofNanos(Math.max(percentileNanos, properties.getHedge().getMinDelay().toNanos()));
+            Mono<ClientResponse> hedge = Mono.delay(delay).flatMap(tick -> {
+                if (!hedgeBudget.tryWithdraw()) {
+                    return Mono.never();
+                }
+                metrics.recordHedge(operationName);
+                // a hedge shed by the limits below must not beat the primary to a signal
+                return timedExchange(request, next, state)
+                        .onErrorResume(CallRejectedException.class, rejected -> Mono.never());
+            });
+            // the loser is cancelled, which releases its connection
+            return Mono.firstWithSignal(primary, hedge);
+        });
+    }
+
+    private static Mono<ClientResponse> timedExchange(ClientRequest request, ExchangeFunction next,
+                                                      OperationState state) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return next.exchange(request).doOnNext(response -> {
+                if (response.rawStatusCode() < 500) {
+                    state.latency.record(System.nanoTime() - start);
+                }
+            });
+        });
+    }
+
+    /**
+     * Turns a 5xx response into the exception {@code retrieve()} would raise for it, so that it can be retried.
+     */
+    private static Mono<ClientResponse> failOnServerError(Mono<ClientResponse> exchange) {
+        return exchange.flatMap(response -> response.rawStatusCode() >= 500
+                ? response.createException().flatMap(Mono::error)
+                : Mono.just(response));
+    }
+
+    private Retry retry(String operationName) {
+        ResilienceProperties.Retry settings = properties.getRetry();
+        return Retry.backoff(settings.getMaxAttempts() - 1, settings.getInitialBackoff())
+                .maxBackoff(settings.getMaxBackoff())
+                .jitter(settings.getJitter())
+                .filter(error -> isRetryable(error) && retryBudget.tryWithdraw())
+                .doBeforeRetry(signal -> metrics.recordRetry(operationName))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException) {
+            int status = ((WebClientResponseException) error).getRawStatusCode();
+            return status >= 500 && status != 501;
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+
+    private class OperationState {
+
+        final Semaphore bulkhead = new Semaphore(properties.getBulkhead().getMaxConcurrentCalls());
+        final LatencyTracker latency = new LatencyTracker(properties.getHedge().getPercentile(),
+                properties.getHedge().getMinSamples());
+    }
+}
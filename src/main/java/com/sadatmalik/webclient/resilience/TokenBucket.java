@@ -0,0 +1,37 @@
+package com.sadatmalik.webclient.resilience;
+
+/**
+ * Time-based token bucket: tokens accrue at {@code permitsPerSecond} up to {@code burst}, and each call takes one
+ * or is refused. Unlike {@link RequestBudget}, which earns tokens from traffic, this bounds the rate itself.
+ */
+class TokenBucket {
+
+    private final double permitsPerSecond;
+    private final double permitsPerNano;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.permitsPerNano = permitsPerSecond / 1e9;
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,45 @@
+package com.sadatmalik.webclient.startup;
+
+import com.sadatmalik.webclient.client.BeerClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures startup the way a batch job or a fresh pod sees it: once the context is up, makes the first
+ * {@code listBeers} call, logs how long after JVM start it was answered and exits. Used to train the class data
+ * sharing archive of the {@code fast-start} Maven profile and by {@code StartupBenchmark}. The exit status is
+ * {@code 1} when the call fails, which still loads nearly every class a successful one would.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty("webclient.startup.first-call-probe")
+public class FirstCallProbe implements ApplicationRunner {
+
+    public static final String MARKER = "First listBeers call answered";
+
+    private final BeerClient beerClient;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int status = 0;
+        try {
+            beerClient.listBeers(0, 1, null, null, null).block();
+        } catch (RuntimeException e) {
+            log.warn("First listBeers call failed", e);
+            status = 1;
+        }
+        log.info("{} {} ms after JVM start", MARKER, ManagementFactory.getRuntimeMXBean().getUptime());
+        int exitCode = status;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
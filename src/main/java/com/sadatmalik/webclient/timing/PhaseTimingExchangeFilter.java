@@ -0,0 +1,39 @@
+package com.sadatmalik.webclient.timing;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Starts the {@link RequestTimings} of each attempt of a {@link TimedExchange} and marks the end of its response
+ * body. Installed innermost, so every retry and hedge is an attempt of its own and the time spent in the filters
+ * in front is left out of the attempt. Exchanges not wrapped in {@link TimedExchange#track} pass through untimed.
+ */
+public class PhaseTimingExchangeFilter implements ExchangeFilterFunction {
+
+    private final SlowRequestLog slowRequestLog;
+
+    public PhaseTimingExchangeFilter(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            TimedExchange exchange = TimedExchange.from(context);
+            if (exchange == null) {
+                return next.exchange(request);
+            }
+            RequestTimings timings = exchange.attempt(request, slowRequestLog);
+            return next.exchange(request)
+                    .map(response -> response.mutate()
+                            .body(body -> body.doOnComplete(timings::bodyRead))
+                            .build())
+                    // the transport finds this attempt here rather than the exchange's latest, which under
+                    // hedging may be another one
+                    .contextWrite(upstream -> upstream.put(RequestTimings.CONTEXT_KEY, timings));
+        });
+    }
+}
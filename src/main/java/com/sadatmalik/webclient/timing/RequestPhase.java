@@ -0,0 +1,29 @@
+package com.sadatmalik.webclient.timing;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The stages of one beer service exchange, in the order they happen.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RequestPhase {
+
+    // waiting for a pooled connection, less any lookup and connect made for a new one
+    POOL_ACQUIRE("poolAcquire"),
+    DNS("dns"),
+    CONNECT("connect"),
+    REQUEST_WRITE("requestWrite"),
+    // from the request being sent to the response status and headers arriving: the service's own time
+    FIRST_BYTE("firstByte"),
+    // from the headers to the last byte of the body
+    BODY_READ("bodyRead"),
+    // binding the body to beers; overlaps BODY_READ for pages, which are decoded as their bytes arrive
+    DECODE("decode"),
+    // the rest of the call outside the final attempt's transport phases: queueing for a concurrency slot, earlier
+    // attempts and their backoff, and binding bodies that are decoded only once read whole
+    OTHER("other");
+
+    private final String name;
+}
@@ -0,0 +1,133 @@
+package com.sadatmalik.webclient.timing;
+
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Phase marks of one attempt at an exchange, from the moment it reaches the transport. Marks are set by
+ * {@link PhaseTimingExchangeFilter}, by {@link TransportPhaseRecorder} from Reactor Netty callbacks and by the
+ * decoders, which find the attempt in the Reactor context or, for the aggregating decoders, in their hints.
+ */
+public class RequestTimings {
+
+    static final String CONTEXT_KEY = RequestTimings.class.getName();
+
+    private final long startNanos = System.nanoTime();
+    private volatile long dnsNanos;
+    private volatile long connectNanos;
+    private volatile long acquiredAt;
+    private volatile long sentAt;
+    private volatile long headersAt;
+    private volatile long bodyReadAt;
+    private final AtomicLong decodeNanos = new AtomicLong();
+    private volatile int status;
+
+    /**
+     * The attempt of the exchange this context belongs to, or {@code null} when the call is not timed.
+     */
+    @Nullable
+    public static RequestTimings from(ContextView context) {
+        if (context.hasKey(CONTEXT_KEY)) {
+            return context.get(CONTEXT_KEY);
+        }
+        TimedExchange exchange = TimedExchange.from(context);
+        return exchange == null ? null : exchange.current();
+    }
+
+    /**
+     * Calls {@code decode} with {@code hints} carrying the attempt of the subscriber's context, if it is timed.
+     * Aggregating decoders bind the joined body in a plain method call that cannot see the Reactor context, so
+     * the attempt to charge the decode time to, through {@link #decoded(Map, long)}, travels in the hints.
+     */
+    public static <T> Mono<T> withHint(@Nullable Map<String, Object> hints,
+                                       Function<Map<String, Object>, Mono<T>> decode) {
+        return Mono.deferContextual(context -> decode.apply(withHint(context, hints)));
+    }
+
+    @Nullable
+    private static Map<String, Object> withHint(ContextView context, @Nullable Map<String, Object> hints) {
+        RequestTimings timings = from(context);
+        if (timings == null) {
+            return hints;
+        }
+        Map<String, Object> withTimings = hints == null ? new HashMap<>() : new HashMap<>(hints);
+        withTimings.put(CONTEXT_KEY, timings);
+        return withTimings;
+    }
+
+    /**
+     * Adds decode time to the attempt carried by {@code hints}, if any.
+     */
+    public static void decoded(@Nullable Map<String, Object> hints, long nanos) {
+        Object timings = hints == null ? null : hints.get(CONTEXT_KEY);
+        if (timings instanceof RequestTimings) {
+            ((RequestTimings) timings).decoded(nanos);
+        }
+    }
+
+    public void decoded(long nanos) {
+        decodeNanos.addAndGet(nanos);
+    }
+
+    void connected(long dnsNanos, long connectNanos) {
+        this.dnsNanos = dnsNanos;
+        this.connectNanos = connectNanos;
+    }
+
+    void acquired() {
+        acquiredAt = System.nanoTime();
+    }
+
+    void sent() {
+        sentAt = System.nanoTime();
+    }
+
+    void headersReceived(int status) {
+        this.status = status;
+        headersAt = System.nanoTime();
+    }
+
+    void bodyRead() {
+        bodyReadAt = System.nanoTime();
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    /**
+     * Time spent in each phase reached, measuring unfinished phases up to {@code endNanos}.
+     */
+    Map<RequestPhase, Long> phases(long endNanos) {
+        Map<RequestPhase, Long> phases = new EnumMap<>(RequestPhase.class);
+        long connectionReady = acquiredAt != 0 ? acquiredAt : endNanos;
+        phases.put(RequestPhase.POOL_ACQUIRE, Math.max(0, connectionReady - startNanos - dnsNanos - connectNanos));
+        if (dnsNanos > 0) {
+            phases.put(RequestPhase.DNS, dnsNanos);
+        }
+        if (connectNanos > 0) {
+            phases.put(RequestPhase.CONNECT, connectNanos);
+        }
+        if (acquiredAt != 0) {
+            phases.put(RequestPhase.REQUEST_WRITE, (sentAt != 0 ? sentAt : endNanos) - acquiredAt);
+        }
+        if (sentAt != 0) {
+            phases.put(RequestPhase.FIRST_BYTE, (headersAt != 0 ? headersAt : endNanos) - sentAt);
+        }
+        if (headersAt != 0) {
+            phases.put(RequestPhase.BODY_READ, (bodyReadAt != 0 ? bodyReadAt : endNanos) - headersAt);
+        }
+        long decode = decodeNanos.get();
+        if (decode > 0) {
+            phases.put(RequestPhase.DECODE, decode);
+        }
+        return phases;
+    }
+}
@@ -0,0 +1,45 @@
+package com.sadatmalik.webclient.timing;
+
+import com.sadatmalik.webclient.client.BeerOperation;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.ClientRequest;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A call that took longer than the slow-request threshold, with the time its final attempt spent in each
+ * {@link RequestPhase}.
+ */
+@Value
+public class SlowRequest {
+
+    Instant time;
+    String operation;
+    String method;
+    String uri;
+    // absent when no response arrived
+    @Nullable
+    Integer status;
+    String outcome;
+    int attempts;
+    double totalMillis;
+    // in phase order
+    Map<String, Double> phaseMillis;
+
+    static SlowRequest of(Instant time, ClientRequest request, @Nullable Integer status, String outcome,
+                          int attempts, long totalNanos, Map<RequestPhase, Long> phaseNanos) {
+        Map<String, Double> phaseMillis = new LinkedHashMap<>();
+        phaseNanos.forEach((phase, nanos) -> phaseMillis.put(phase.getName(), millis(nanos)));
+        return new SlowRequest(time,
+                BeerOperation.from(request).map(BeerOperation::getOperationName).orElse("none"),
+                request.method().name(), request.url().toString(), status, outcome, attempts, millis(totalNanos),
+                phaseMillis);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
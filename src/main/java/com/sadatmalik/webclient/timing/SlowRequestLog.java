@@ -0,0 +1,69 @@
+package com.sadatmalik.webclient.timing;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The most recent {@link SlowRequest}s, holding at most {@code capacity}; older entries are dropped as new ones
+ * arrive.
+ */
+public class SlowRequestLog {
+
+    private final long thresholdNanos;
+    private final int capacity;
+    private final Deque<SlowRequest> entries;
+    private final LongAdder recorded = new LongAdder();
+
+    public SlowRequestLog(Duration threshold, int capacity) {
+        this.thresholdNanos = threshold.toNanos();
+        this.capacity = Math.max(1, capacity);
+        this.entries = new ArrayDeque<>(this.capacity);
+    }
+
+    public long getThresholdNanos() {
+        return thresholdNanos;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void add(SlowRequest request) {
+        recorded.increment();
+        synchronized (entries) {
+            if (entries.size() == capacity) {
+                entries.removeFirst();
+            }
+            entries.addLast(request);
+        }
+    }
+
+    /**
+     * The retained slow requests, newest first.
+     */
+    public List<SlowRequest> getEntries() {
+        synchronized (entries) {
+            List<SlowRequest> newestFirst = new ArrayList<>(entries.size());
+            entries.descendingIterator().forEachRemaining(newestFirst::add);
+            return newestFirst;
+        }
+    }
+
+    /**
+     * Slow requests seen since startup or the last {@link #clear()}, including those no longer retained.
+     */
+    public long getRecordedCount() {
+        return recorded.sum();
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            recorded.reset();
+        }
+    }
+}
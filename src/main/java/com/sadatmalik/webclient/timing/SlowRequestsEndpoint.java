@@ -0,0 +1,42 @@
+package com.sadatmalik.webclient.timing;
+
+import lombok.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@code /actuator/slowrequests}: the beer service calls retained by the {@link SlowRequestLog}, newest first.
+ * A {@code DELETE} empties the log.
+ */
+@Endpoint(id = "slowrequests")
+public class SlowRequestsEndpoint {
+
+    private final SlowRequestLog slowRequestLog;
+
+    public SlowRequestsEndpoint(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @ReadOperation
+    public SlowRequests slowRequests() {
+        return new SlowRequests(Duration.ofNanos(slowRequestLog.getThresholdNanos()), slowRequestLog.getCapacity(),
+                slowRequestLog.getRecordedCount(), slowRequestLog.getEntries());
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowRequestLog.clear();
+    }
+
+    @Value
+    public static class SlowRequests {
+        Duration threshold;
+        int capacity;
+        long recorded;
+        List<SlowRequest> requests;
+    }
+}
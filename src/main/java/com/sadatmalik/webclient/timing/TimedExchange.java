@@ -0,0 +1,114 @@
+package com.sadatmalik.webclient.timing;
+
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One timed call to the beer service, from subscription until its result has been decoded, across however many
+ * attempts the filters in front of the transport make. Calls are wrapped with {@link #track(Mono)} where they are
+ * made, which puts the exchange in the Reactor context for {@link PhaseTimingExchangeFilter} to find. Calls the
+ * filter never sees, such as those answered from a cache, are not recorded.
+ */
+public class TimedExchange {
+
+    static final String CONTEXT_KEY = TimedExchange.class.getName();
+
+    private final Instant startTime = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private volatile RequestTimings current;
+    private volatile ClientRequest request;
+    private volatile SlowRequestLog slowRequestLog;
+    private volatile Throwable error;
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    public static <T> Mono<T> track(Mono<T> call) {
+        return Mono.defer(() -> {
+            TimedExchange exchange = new TimedExchange();
+            // recorded before the result reaches the caller
+            return call.doOnError(exchange::failed)
+                    .doOnTerminate(() -> exchange.finish(false))
+                    .doOnCancel(() -> exchange.finish(true))
+                    .contextWrite(Context.of(CONTEXT_KEY, exchange));
+        });
+    }
+
+    public static <T> Flux<T> track(Flux<T> call) {
+        return Flux.defer(() -> {
+            TimedExchange exchange = new TimedExchange();
+            return call.doOnError(exchange::failed)
+                    .doOnTerminate(() -> exchange.finish(false))
+                    .doOnCancel(() -> exchange.finish(true))
+                    .contextWrite(Context.of(CONTEXT_KEY, exchange));
+        });
+    }
+
+    @Nullable
+    static TimedExchange from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, null);
+    }
+
+    RequestTimings attempt(ClientRequest request, SlowRequestLog slowRequestLog) {
+        RequestTimings timings = new RequestTimings();
+        this.request = request;
+        this.slowRequestLog = slowRequestLog;
+        this.current = timings;
+        attempts.incrementAndGet();
+        return timings;
+    }
+
+    @Nullable
+    RequestTimings current() {
+        return current;
+    }
+
+    private void failed(Throwable error) {
+        this.error = error;
+    }
+
+    private void finish(boolean cancelled) {
+        SlowRequestLog log = slowRequestLog;
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        long endNanos = System.nanoTime();
+        long totalNanos = endNanos - startNanos;
+        if (log == null || totalNanos < log.getThresholdNanos()) {
+            return;
+        }
+        RequestTimings timings = current;
+        Map<RequestPhase, Long> phases = timings.phases(endNanos);
+        long transportNanos = phases.entrySet().stream()
+                .filter(phase -> phase.getKey() != RequestPhase.DECODE)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        phases.put(RequestPhase.OTHER, Math.max(0, totalNanos - transportNanos));
+        log.add(SlowRequest.of(startTime, request, status(timings), outcome(cancelled), attempts.get(), totalNanos,
+                phases));
+    }
+
+    @Nullable
+    private Integer status(RequestTimings timings) {
+        if (error instanceof WebClientResponseException) {
+            return ((WebClientResponseException) error).getRawStatusCode();
+        }
+        return timings.getStatus() == 0 ? null : timings.getStatus();
+    }
+
+    private String outcome(boolean cancelled) {
+        if (cancelled) {
+            return "CANCELLED";
+        }
+        return error == null ? "SUCCESS" : error.getClass().getSimpleName();
+    }
+}
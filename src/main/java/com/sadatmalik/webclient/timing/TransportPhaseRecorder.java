@@ -0,0 +1,107 @@
+package com.sadatmalik.webclient.timing;
+
+import reactor.netty.Connection;
+import reactor.netty.http.client.ContextAwareHttpClientMetricsRecorder;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.http.client.HttpClientResponse;
+import reactor.util.context.ContextView;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+
+/**
+ * Marks the transport phases of the attempt in the request's Reactor context. The DNS and connect times of a new
+ * connection come through the metrics recorder callbacks; the request and response marks through the
+ * {@code doOnRequest}, {@code doAfterRequest} and {@code doOnResponse} hooks of the {@code HttpClient}.
+ * <p>
+ * Reactor Netty 1.0 reports address resolution without the context, so the lookup time is held on the event
+ * loop thread, which goes on to connect the same channel, and claimed by the connect that follows it.
+ */
+public class TransportPhaseRecorder extends ContextAwareHttpClientMetricsRecorder {
+
+    private static final ThreadLocal<long[]> LAST_RESOLVE_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    public static void onRequest(HttpClientRequest request, Connection connection) {
+        RequestTimings timings = RequestTimings.from(request.currentContextView());
+        if (timings != null) {
+            timings.acquired();
+        }
+    }
+
+    public static void afterRequest(HttpClientRequest request, Connection connection) {
+        RequestTimings timings = RequestTimings.from(request.currentContextView());
+        if (timings != null) {
+            timings.sent();
+        }
+    }
+
+    public static void onResponse(HttpClientResponse response, Connection connection) {
+        RequestTimings timings = RequestTimings.from(response.currentContextView());
+        if (timings != null) {
+            timings.headersReceived(response.status().code());
+        }
+    }
+
+    @Override
+    public void recordResolveAddressTime(SocketAddress remoteAddress, Duration time, String status) {
+        LAST_RESOLVE_NANOS.get()[0] = time.toNanos();
+    }
+
+    @Override
+    public void recordConnectTime(ContextView contextView, SocketAddress remoteAddress, Duration time,
+                                  String status) {
+        long[] lastResolve = LAST_RESOLVE_NANOS.get();
+        long resolveNanos = lastResolve[0];
+        lastResolve[0] = 0;
+        RequestTimings timings = RequestTimings.from(contextView);
+        if (timings != null) {
+            timings.connected(resolveNanos, time.toNanos());
+        }
+    }
+
+    // the remaining measurements are left to the metrics filter and the pool meters
+
+    @Override
+    public void recordDataReceivedTime(ContextView contextView, SocketAddress remoteAddress, String uri,
+                                       String method, String status, Duration time) {
+    }
+
+    @Override
+    public void recordDataSentTime(ContextView contextView, SocketAddress remoteAddress, String uri, String method,
+                                   Duration time) {
+    }
+
+    @Override
+    public void recordResponseTime(ContextView contextView, SocketAddress remoteAddress, String uri, String method,
+                                   String status, Duration time) {
+    }
+
+    @Override
+    public void recordDataReceived(ContextView contextView, SocketAddress remoteAddress, String uri, long bytes) {
+    }
+
+    @Override
+    public void recordDataSent(ContextView contextView, SocketAddress remoteAddress, String uri, long bytes) {
+    }
+
+    @Override
+    public void incrementErrorsCount(ContextView contextView, SocketAddress remoteAddress, String uri) {
+    }
+
+    @Override
+    public void recordDataReceived(ContextView contextView, SocketAddress remoteAddress, long bytes) {
+    }
+
+    @Override
+    public void recordDataSent(ContextView contextView, SocketAddress remoteAddress, long bytes) {
+    }
+
+    @Override
+    public void incrementErrorsCount(ContextView contextView, SocketAddress remoteAddress) {
+    }
+
+    @Override
+    public void recordTlsHandshakeTime(ContextView contextView, SocketAddress remoteAddress, Duration time,
+                                       String status) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.sadatmalik.webclient.wirelog;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Logs request and response body bytes of a single exchange as text, up to a limit in each direction.
+ */
+@Slf4j(topic = "webclient.wire")
+class WireBodyLoggingHandler extends ChannelDuplexHandler {
+
+    private final int maxBodyBytes;
+    private int inboundLogged;
+    private int outboundLogged;
+
+    WireBodyLoggingHandler(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        inboundLogged += logContent(ctx, "<<", msg, maxBodyBytes - inboundLogged);
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        outboundLogged += logContent(ctx, ">>", msg, maxBodyBytes - outboundLogged);
+        super.write(ctx, msg, promise);
+    }
+
+    private static int logContent(ChannelHandlerContext ctx, String direction, Object msg, int remaining) {
+        ByteBuf content = msg instanceof ByteBufHolder ? ((ByteBufHolder) msg).content()
+                : msg instanceof ByteBuf ? (ByteBuf) msg : null;
+        if (content == null || remaining <= 0 || !content.isReadable()) {
+            return 0;
+        }
+        int length = Math.min(remaining, content.readableBytes());
+        log.debug("[{}] {} {}{}", ctx.channel().id().asShortText(), direction,
+                content.toString(content.readerIndex(), length, StandardCharsets.UTF_8),
+                length < content.readableBytes() ? "..." : "");
+        return length;
+    }
+}
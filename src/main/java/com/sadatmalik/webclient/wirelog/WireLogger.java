@@ -0,0 +1,59 @@
+package com.sadatmalik.webclient.wirelog;
+
+import com.sadatmalik.webclient.config.HttpClientProperties;
+import io.netty.util.AttributeKey;
+import lombok.extern.slf4j.Slf4j;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sampled wire logging for the beer {@code HttpClient}, switched on and off at runtime through the level of the
+ * {@code webclient.wire} logger. Each request checks the level and the 1-in-N sample; unsampled requests cost
+ * nothing more. Sampled requests get their request and response headers logged, and when bodies are enabled a
+ * {@link WireBodyLoggingHandler} is added to the connection for that request only, capped in bytes.
+ */
+@Slf4j(topic = "webclient.wire")
+public class WireLogger {
+
+    static final String HANDLER_NAME = "webclient.wireBodyLogger";
+
+    private static final AttributeKey<Boolean> SAMPLED = AttributeKey.valueOf("webclient.wireLogSampled");
+
+    private final HttpClientProperties.WireLog settings;
+    private final AtomicLong requests = new AtomicLong();
+
+    public WireLogger(HttpClientProperties.WireLog settings) {
+        this.settings = settings;
+    }
+
+    public void onRequest(HttpClientRequest request, Connection connection) {
+        boolean sampled = log.isDebugEnabled()
+                && requests.getAndIncrement() % Math.max(1, settings.getSampleRate()) == 0;
+        connection.channel().attr(SAMPLED).set(sampled);
+        if (sampled && !settings.isHeadersOnly()) {
+            // removed again by Reactor Netty when this request's connection is released
+            connection.addHandlerFirst(HANDLER_NAME, new WireBodyLoggingHandler(settings.getMaxBodyBytes()));
+        }
+    }
+
+    public void afterRequest(HttpClientRequest request, Connection connection) {
+        if (isSampled(connection)) {
+            log.debug("[{}] {} {} {}", connection.channel().id().asShortText(), request.method(),
+                    request.resourceUrl(), request.requestHeaders());
+        }
+    }
+
+    public void onResponse(HttpClientResponse response, Connection connection) {
+        if (isSampled(connection)) {
+            log.debug("[{}] {} {} {}", connection.channel().id().asShortText(), response.status(),
+                    response.resourceUrl(), response.responseHeaders());
+        }
+    }
+
+    private static boolean isSampled(Connection connection) {
+        return Boolean.TRUE.equals(connection.channel().attr(SAMPLED).get());
+    }
+}
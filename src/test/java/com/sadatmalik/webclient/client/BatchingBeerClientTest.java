@@ -0,0 +1,99 @@
+package com.sadatmalik.webclient.client;
+
+import com.sadatmalik.webclient.config.BeerBatchProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchingBeerClientTest {
+
+    StubBeerServer stubServer;
+    BatchingBeerClient beerClient;
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(40);
+        BeerBatchProperties properties = new BeerBatchProperties();
+        properties.setMaxBatchSize(10);
+        properties.setMaxWait(Duration.ofMillis(50));
+        beerClient = new BatchingBeerClient(new BeerClientImpl(stubServer.webClient()), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void concurrentLookupsShareBatches() {
+        List<Beer> beers = stubServer.beers().subList(0, 25);
+
+        List<Beer> results = Flux.fromIterable(beers)
+                .flatMap(beer -> beerClient.getBeerById(beer.getId(), false))
+                .collectList()
+                .block();
+
+        assertThat(results).extracting(Beer::getId)
+                .containsExactlyInAnyOrderElementsOf(beers.stream().map(Beer::getId).collect(Collectors.toList()));
+        // two full batches of ten, then the remaining five once the window closes
+        assertThat(beerClient.getBatchCount()).isEqualTo(3);
+    }
+
+    @Test
+    void getBeersByIdsKeepsOrderAndSkipsMissingIds() {
+        List<Beer> beers = stubServer.beers();
+        List<UUID> ids = List.of(beers.get(7).getId(), UUID.randomUUID(), beers.get(2).getId(), beers.get(7).getId());
+
+        StepVerifier.create(beerClient.getBeersByIds(ids).map(Beer::getId))
+                .expectNext(beers.get(7).getId(), beers.get(2).getId())
+                .verifyComplete();
+        assertThat(beerClient.getBatchCount()).isEqualTo(1);
+
+        StepVerifier.create(beerClient.getBeersByUpcs(List.of(beers.get(1).getUpc(), "000")).map(Beer::getUpc))
+                .expectNext(beers.get(1).getUpc())
+                .verifyComplete();
+    }
+
+    @Test
+    void aFailingLookupFailsOnlyItsOwnCallers() {
+        List<Beer> beers = stubServer.beers();
+        String failing = beers.get(0).getUpc();
+        BatchingBeerClient beerClient = new BatchingBeerClient(new BeerClientImpl(stubServer.webClient()) {
+            @Override
+            public Mono<Beer> getBeerByUpc(String upc) {
+                return upc.equals(failing) ? Mono.error(new IllegalStateException("lookup failed"))
+                        : super.getBeerByUpc(upc);
+            }
+        }, new BeerBatchProperties());
+
+        Mono<Beer> failed = beerClient.getBeerByUpc(failing);
+        Mono<Beer> found = beerClient.getBeerByUpc(beers.get(1).getUpc());
+        Mono<Beer> missing = beerClient.getBeerByUpc("000");
+
+        StepVerifier.create(Flux.merge(failed.onErrorReturn(IllegalStateException.class, beers.get(0)),
+                        found, missing.onErrorReturn(WebClientResponseException.NotFound.class, beers.get(2))))
+                .expectNextCount(3)
+                .verifyComplete();
+        assertThat(beerClient.getBatchCount()).isEqualTo(1);
+    }
+
+    @Test
+    void missingBeerFailsLikeADirectLookup() {
+        StepVerifier.create(beerClient.getBeerById(UUID.randomUUID(), false))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify();
+    }
+}
@@ -0,0 +1,164 @@
+package com.sadatmalik.webclient.client;
+
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerPagedList;
+import com.sadatmalik.webclient.domain.BeerStyle;
+import com.sadatmalik.webclient.domain.BulkWriteResult;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exercises {@link BeerClientImpl} against an in-process {@link StubBeerServer} instead of the live API.
+ */
+class BeerClientImplStubServerTest {
+
+    StubBeerServer stubServer;
+    BeerClientImpl beerClient;
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(53);
+        beerClient = new BeerClientImpl(stubServer.webClient());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void listAllBeersWalksEveryPageInOrder() {
+        List<Beer> beers = beerClient.listAllBeers(10, null, null, null).collectList().block();
+
+        assertThat(beers).extracting(Beer::getId)
+                .containsExactlyElementsOf(stubServer.beers().stream().map(Beer::getId)
+                        .collect(Collectors.toList()));
+        assertThat(stubServer.requestCount()).isEqualTo(6);
+    }
+
+    @Test
+    void listAllBeersStopsFetchingWhenCancelled() {
+        StepVerifier.create(beerClient.listAllBeers(10, null, null, null).take(5))
+                .expectNextCount(5)
+                .verifyComplete();
+
+        // the first page plus at most the prefetched pages
+        assertThat(stubServer.requestCount()).isLessThanOrEqualTo(1 + BeerClientImpl.SCAN_PAGE_PREFETCH);
+    }
+
+    @Test
+    void listAllBeersSinglePage() {
+        StepVerifier.create(beerClient.listAllBeers(100, null, null, null))
+                .expectNextCount(53)
+                .verifyComplete();
+
+        assertThat(stubServer.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void streamBeersEmitsBeersThenMetadata() {
+        StepVerifier.create(beerClient.streamBeers(5, 10, null, null, null))
+                .expectNextCount(3)
+                .assertNext(element -> {
+                    assertThat(element.isBeer()).isFalse();
+                    assertThat(element.getMetadata().getNumber()).isEqualTo(5);
+                    assertThat(element.getMetadata().getTotalPages()).isEqualTo(6);
+                    assertThat(element.getMetadata().isLast()).isTrue();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void concurrentLookupsOfTheSameBeerShareOneExchange() {
+        Beer beer = stubServer.beers().get(0);
+        stubServer.setResponseDelay(Duration.ofMillis(200));
+
+        List<Beer> results = Flux.range(0, 10)
+                .flatMap(i -> beerClient.getBeerById(beer.getId(), false))
+                .collectList()
+                .block();
+
+        assertThat(results).hasSize(10).allSatisfy(result -> assertThat(result.getId()).isEqualTo(beer.getId()));
+        assertThat(stubServer.requestCount()).isEqualTo(1);
+        assertThat(beerClient.getLookupCount()).isEqualTo(10);
+        assertThat(beerClient.getCoalescedLookupCount()).isEqualTo(9);
+
+        // once the shared exchange completes the next lookup goes upstream again
+        beerClient.getBeerByUpc(beer.getUpc()).block();
+        assertThat(stubServer.requestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void createNewBeersReportsEveryItem() {
+        Flux<Beer> beers = Flux.range(0, 20).map(i -> Beer.builder().beerName("Bulk " + i).beerStyle(BeerStyle.PALE_ALE)
+                .upc("9" + i).build());
+
+        List<BulkWriteResult> results = beerClient.createNewBeers(beers,
+                BulkWriteOptions.builder().concurrency(4).build()).collectList().block();
+
+        assertThat(results).hasSize(20).allSatisfy(result -> {
+            assertThat(result.isSuccess()).isTrue();
+            assertThat(result.getStatus()).isEqualTo(HttpStatus.CREATED);
+            assertThat(result.getLocation()).isNotNull();
+        });
+        assertThat(results).extracting(BulkWriteResult::getIndex).containsExactlyInAnyOrderElementsOf(
+                LongStream.range(0, 20).boxed().collect(Collectors.toList()));
+        assertThat(stubServer.beers()).hasSize(73);
+    }
+
+    @Test
+    void updateBeersByIdContinuesPastFailedItems() {
+        List<Beer> existing = stubServer.beers();
+        UUID missing = UUID.randomUUID();
+
+        long started = System.nanoTime();
+        List<BulkWriteResult> results = beerClient.updateBeersById(Flux.just(
+                        Tuples.of(existing.get(0).getId(), existing.get(0)),
+                        Tuples.of(missing, existing.get(1)),
+                        Tuples.of(existing.get(2).getId(), existing.get(2))),
+                BulkWriteOptions.builder().concurrency(2).maxRequestsPerSecond(10).build()).collectList().block();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+        assertThat(results).hasSize(3);
+        assertThat(results).filteredOn(BulkWriteResult::isSuccess).extracting(BulkWriteResult::getBeerId)
+                .containsExactlyInAnyOrder(existing.get(0).getId(), existing.get(2).getId());
+        assertThat(results).filteredOn(result -> !result.isSuccess()).singleElement().satisfies(result -> {
+            assertThat(result.getIndex()).isEqualTo(1);
+            assertThat(result.getBeerId()).isEqualTo(missing);
+            assertThat(result.getStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+        });
+    }
+
+    @Test
+    void unchangedReadsAreRevalidatedNotDownloaded() {
+        Beer beer = stubServer.beers().get(0);
+
+        Beer first = beerClient.getBeerById(beer.getId(), false).block();
+        BeerPagedList firstPage = beerClient.listBeers(0, 10, null, null, null).block();
+        assertThat(beerClient.getBeerById(beer.getId(), false).block()).isSameAs(first);
+        assertThat(beerClient.listBeers(0, 10, null, null, null).block()).isSameAs(firstPage);
+        assertThat(beerClient.getNotModifiedCount()).isEqualTo(2);
+        assertThat(stubServer.requestCount()).isEqualTo(4);
+
+        beerClient.updateBeerById(beer.getId(), Beer.builder().beerName("Renamed").beerStyle(beer.getBeerStyle())
+                .upc(beer.getUpc()).price(beer.getPrice()).build()).block();
+        assertThat(beerClient.getBeerById(beer.getId(), false).block())
+                .isNotSameAs(first)
+                .extracting(Beer::getBeerName).isEqualTo("Renamed");
+        assertThat(beerClient.getNotModifiedCount()).isEqualTo(2);
+    }
+}
@@ -1,8 +1,13 @@
 package com.sadatmalik.webclient.client;
 
+import com.sadatmalik.webclient.config.HttpClientProperties;
+import com.sadatmalik.webclient.config.ResilienceProperties;
 import com.sadatmalik.webclient.config.WebClientConfig;
+import com.sadatmalik.webclient.config.WebClientProperties;
 import com.sadatmalik.webclient.domain.Beer;
 import com.sadatmalik.webclient.domain.BeerPagedList;
+import com.sadatmalik.webclient.domain.BeerStyle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -26,7 +31,8 @@ class BeerClientImplTest {
 
     @BeforeEach
     void setUp() {
-        beerClient = new BeerClientImpl(new WebClientConfig().webClient());
+        beerClient = new BeerClientImpl(new WebClientConfig().webClient(new HttpClientProperties(),
+                new WebClientProperties(), new ResilienceProperties(), new SimpleMeterRegistry()));
     }
 
     @Test
@@ -142,7 +148,7 @@ class BeerClientImplTest {
     void createNewBeer() {
         Beer beer = Beer.builder()
                 .beerName("Dogfishhead 90 Min IPA")
-                .beerStyle("IPA")
+                .beerStyle(BeerStyle.IPA)
                 .upc("234848549559")
                 .price(new BigDecimal("10.99"))
                 .build();
@@ -0,0 +1,64 @@
+package com.sadatmalik.webclient.client;
+
+import com.sadatmalik.webclient.config.BeerBlockingProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BlockingBeerClientTest {
+
+    StubBeerServer stubServer;
+    BlockingBeerClient beerClient;
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(50);
+        BeerBlockingProperties properties = new BeerBlockingProperties();
+        properties.setPlatformThreads(8);
+        beerClient = new BlockingBeerClient(new BeerClientImpl(stubServer.webClient()), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerClient.close();
+        stubServer.close();
+    }
+
+    @Test
+    void blocksForResultsAndRethrowsErrors() {
+        Beer beer = stubServer.beers().get(3);
+
+        assertThat(beerClient.getBeerById(beer.getId(), true)).isEqualTo(beer);
+        assertThat(beerClient.listBeers(1, 10, null, null, true).getContent())
+                .containsExactlyElementsOf(stubServer.beers().subList(10, 20));
+        assertThat(beerClient.listAllBeers(20, null, null, true)).hasSize(50);
+        assertThrows(WebClientResponseException.NotFound.class, () -> beerClient.getBeerById(UUID.randomUUID(), false));
+    }
+
+    @Test
+    void runsManyBlockingCallersConcurrently() {
+        List<Beer> beers = stubServer.beers();
+        List<CompletableFuture<Beer>> lookups = IntStream.range(0, 500)
+                .mapToObj(i -> beers.get(i % beers.size()))
+                .map(beer -> beerClient.submit(client -> client.getBeerByUpc(beer.getUpc())))
+                .collect(Collectors.toList());
+
+        assertThat(lookups.stream().map(CompletableFuture::join).map(Beer::getUpc))
+                .containsExactlyElementsOf(IntStream.range(0, 500)
+                        .mapToObj(i -> beers.get(i % beers.size()).getUpc())
+                        .collect(Collectors.toList()));
+        assertThat(beerClient.isUsingVirtualThreads()).isEqualTo(Runtime.version().feature() >= 21);
+    }
+}
@@ -0,0 +1,68 @@
+package com.sadatmalik.webclient.client;
+
+import com.sadatmalik.webclient.config.BeerCacheProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingBeerClientTest {
+
+    StubBeerServer stubServer;
+    CachingBeerClient beerClient;
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(30);
+        beerClient = new CachingBeerClient(new BeerClientImpl(stubServer.webClient()), new BeerCacheProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void repeatReadsAreServedFromCache() {
+        Beer beer = stubServer.beers().get(3);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(beerClient.getBeerById(beer.getId(), false).block().getBeerName())
+                    .isEqualTo(beer.getBeerName());
+            assertThat(beerClient.listBeers(0, 10, null, null, null).block().getContent()).hasSize(10);
+        }
+
+        assertThat(stubServer.requestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void lookupByIdWarmsUpcIndex() {
+        Beer beer = stubServer.beers().get(3);
+
+        beerClient.getBeerById(beer.getId(), null).block();
+        Beer byUpc = beerClient.getBeerByUpc(beer.getUpc()).block();
+
+        assertThat(byUpc.getId()).isEqualTo(beer.getId());
+        assertThat(stubServer.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void writesInvalidateBeerAndPages() {
+        Beer beer = stubServer.beers().get(3);
+        beerClient.getBeerByUpc(beer.getUpc()).block();
+        beerClient.listBeers(0, 10, null, null, null).block();
+
+        beerClient.updateBeerById(beer.getId(), beer).block();
+        int afterUpdate = stubServer.requestCount();
+
+        beerClient.getBeerById(beer.getId(), false).block();
+        beerClient.getBeerByUpc(beer.getUpc()).block();
+        beerClient.listBeers(0, 10, null, null, null).block();
+
+        // the id lookup reloads and re-warms the UPC index, the page is fetched again
+        assertThat(stubServer.requestCount()).isEqualTo(afterUpdate + 2);
+    }
+}
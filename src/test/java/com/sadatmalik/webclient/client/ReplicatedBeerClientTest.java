@@ -0,0 +1,130 @@
+package com.sadatmalik.webclient.client;
+
+import com.sadatmalik.webclient.config.BeerReplicaProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerPagedList;
+import com.sadatmalik.webclient.domain.BeerStyle;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicatedBeerClientTest {
+
+    StubBeerServer stubServer;
+    BeerClientImpl beerClientImpl;
+    ReplicatedBeerClient beerClient;
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(30);
+        beerClientImpl = new BeerClientImpl(stubServer.webClient());
+        BeerReplicaProperties properties = new BeerReplicaProperties();
+        properties.setPageSize(10);
+        properties.setSyncInterval(Duration.ofHours(1));
+        beerClient = new ReplicatedBeerClient(beerClientImpl, beerClientImpl, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerClient.close();
+        stubServer.close();
+    }
+
+    @Test
+    void readsGoUpstreamUntilBootstrappedThenStayLocal() {
+        Beer beer = stubServer.beers().get(7);
+
+        assertThat(beerClient.getBeerByUpc(beer.getUpc()).block().getId()).isEqualTo(beer.getId());
+        assertThat(beerClient.getSyncLagSeconds()).isNaN();
+
+        beerClient.sync().block();
+        int requestsAfterSync = stubServer.requestCount();
+
+        assertThat(beerClient.isFresh()).isTrue();
+        assertThat(beerClient.getSize()).isEqualTo(30);
+        assertThat(beerClient.getBeerById(beer.getId(), true).block()).isEqualTo(beer);
+        assertThat(beerClient.getBeerById(beer.getId(), false).block().getQuantityOnHand()).isNull();
+        assertThat(beerClient.getBeerByUpc(beer.getUpc()).block().getId()).isEqualTo(beer.getId());
+        StepVerifier.create(beerClient.getBeerByUpc("missing"))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify();
+
+        BeerPagedList page = beerClient.listBeers(2, 8, null, BeerStyle.IPA.name(), true).block();
+        assertThat(page.getContent()).containsExactlyElementsOf(stubServer.beers().subList(16, 24));
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        assertThat(page.getTotalPages()).isEqualTo(4);
+        assertThat(beerClient.listBeers(0, 8, "Beer 3", null, null).block().getContent())
+                .extracting(Beer::getId).containsExactly(stubServer.beers().get(3).getId());
+        assertThat(beerClient.listBeers(0, 8, null, BeerStyle.STOUT.name(), null).block().getContent()).isEmpty();
+        StepVerifier.create(beerClient.streamBeers(3, 8, null, null, null))
+                .expectNextCount(6)
+                .assertNext(element -> assertThat(element.getMetadata().isLast()).isTrue())
+                .verifyComplete();
+        assertThat(beerClient.listAllBeers(5, null, null, null).count().block()).isEqualTo(30);
+
+        assertThat(stubServer.requestCount()).isEqualTo(requestsAfterSync);
+        assertThat(beerClient.getLocalReadCount()).isEqualTo(9);
+    }
+
+    @Test
+    void writesSendReadsUpstreamUntilTheNextSync() {
+        beerClient.sync().block();
+        Beer beer = stubServer.beers().get(0);
+
+        beerClient.updateBeerById(beer.getId(), beer.toBuilder().id(null).beerName("Renamed")
+                .lastUpdatedDate(OffsetDateTime.now()).build()).block();
+        assertThat(beerClient.isFresh()).isFalse();
+        assertThat(beerClient.getBeerById(beer.getId(), true).block().getBeerName()).isEqualTo("Renamed");
+
+        beerClient.sync().block();
+        assertThat(beerClient.isFresh()).isTrue();
+        assertThat(beerClient.listBeers(0, 5, "Renamed", null, true).block().getContent())
+                .extracting(Beer::getId).containsExactly(beer.getId());
+        assertThat(beerClient.getSyncLagSeconds()).isBetween(0.0, 5.0);
+    }
+
+    @Test
+    void inventoryChangesReachTheReplicaWithoutANewVersion() {
+        beerClient.sync().block();
+        Beer beer = stubServer.beers().get(0);
+
+        // the server's stock moves without touching lastUpdatedDate
+        beerClientImpl.updateBeerById(beer.getId(), beer.toBuilder().id(null)
+                .quantityOnHand(beer.getQuantityOnHand() + 7).build()).block();
+        beerClient.sync().block();
+
+        assertThat(beerClient.isFresh()).isTrue();
+        assertThat(beerClient.getBeerById(beer.getId(), true).block().getQuantityOnHand())
+                .isEqualTo(beer.getQuantityOnHand() + 7);
+    }
+
+    @Test
+    void unchangedCatalogIsRevalidatedNotDownloaded() {
+        beerClient.sync().block();
+        beerClient.sync().block();
+
+        assertThat(beerClient.getSyncCount()).isEqualTo(2);
+        assertThat(beerClientImpl.getNotModifiedCount()).isEqualTo(3);
+    }
+
+    @Test
+    void searchesNamesByPrefixAndSubstring() {
+        beerClient.sync().block();
+
+        assertThat(beerClient.findByNamePrefix("beer 2").collectList().block()).extracting(Beer::getBeerName)
+                .containsExactlyInAnyOrder("Beer 2", "Beer 20", "Beer 21", "Beer 22", "Beer 23", "Beer 24",
+                        "Beer 25", "Beer 26", "Beer 27", "Beer 28", "Beer 29");
+        assertThat(beerClient.findByNameContaining("ER 1").collectList().block()).extracting(Beer::getBeerName)
+                .containsExactly("Beer 1", "Beer 10", "Beer 11", "Beer 12", "Beer 13", "Beer 14", "Beer 15",
+                        "Beer 16", "Beer 17", "Beer 18", "Beer 19");
+        assertThat(beerClient.findByNameContaining("porter").collectList().block()).isEmpty();
+    }
+}
@@ -0,0 +1,64 @@
+package com.sadatmalik.webclient.client;
+
+import com.sadatmalik.webclient.config.WebClientProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerPagedList;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevalidationStoreTest {
+
+    StubBeerServer stubServer;
+    WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(20);
+        webClient = stubServer.webClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void resubscribingAfterTheEntryIsGoneDownloadsInFull() {
+        RevalidationStore<String> store = new RevalidationStore<>(100, stored -> 1);
+        Beer beer = stubServer.beers().get(0);
+        Mono<Beer> read = store.read("beer", () -> webClient.get()
+                .uri(WebClientProperties.BEER_V1_PATH_GET_BY_ID, beer.getId()), Beer.class);
+
+        Beer first = read.block();
+        assertThat(read.block()).isSameAs(first);
+        assertThat(store.getNotModifiedCount()).isEqualTo(1);
+
+        store.invalidate("beer");
+
+        assertThat(read.block()).isNotSameAs(first).isEqualTo(first);
+        assertThat(store.getNotModifiedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void pagesHeavierThanTheStoreAreNotKept() {
+        // evicting on the calling thread, so an overweight page is gone before the next read
+        RevalidationStore<Integer> store = new RevalidationStore<>(10,
+                stored -> ((BeerPagedList) stored).getNumberOfElements(), Runnable::run);
+
+        for (int pageSize : new int[]{5, 5, 20, 20}) {
+            store.read(pageSize, () -> webClient.get().uri(uriBuilder -> uriBuilder
+                    .path(WebClientProperties.BEER_V1_PATH)
+                    .queryParam("pageSize", pageSize)
+                    .build()), BeerPagedList.class).block();
+        }
+
+        // only the second small page was answered from the store
+        assertThat(store.getNotModifiedCount()).isEqualTo(1);
+    }
+}
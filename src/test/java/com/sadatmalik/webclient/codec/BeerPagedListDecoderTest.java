@@ -0,0 +1,104 @@
+package com.sadatmalik.webclient.codec;
+
+import com.sadatmalik.webclient.config.WebClientConfig;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerPageElement;
+import com.sadatmalik.webclient.domain.BeerPagedList;
+import com.sadatmalik.webclient.domain.BeerStyle;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerPagedListDecoderTest {
+
+    static final String PAGE_JSON = "{\"content\":["
+            + "{\"id\":\"0a818933-087d-47f2-ad83-2f986ed087eb\",\"beerName\":\"Mango Bobs\",\"beerStyle\":\"ALE\","
+            + "\"upc\":\"0631234200036\",\"price\":12.95,\"quantityOnHand\":null,"
+            + "\"createdDate\":\"2021-12-27T19:37:04.124Z\",\"lastUpdatedDate\":\"2021-12-27T19:37:04.124Z\"},"
+            + "{\"id\":\"a364d5ea-83ff-4f3b-9d47-bf3e8dbc2d2c\",\"beerName\":\"Galaxy Cat\",\"beerStyle\":\"PALE_ALE\","
+            + "\"upc\":\"9122089364369\",\"price\":12.10,\"quantityOnHand\":null,"
+            + "\"createdDate\":\"2021-12-27T19:37:04.126Z\",\"lastUpdatedDate\":\"2021-12-27T19:37:04.126Z\"}],"
+            + "\"pageable\":{\"sort\":{\"sorted\":false,\"unsorted\":true,\"empty\":true},\"offset\":50,"
+            + "\"pageNumber\":2,\"pageSize\":25,\"paged\":true,\"unpaged\":false},"
+            + "\"totalPages\":3,\"totalElements\":52,\"last\":true,\"size\":25,\"number\":2,"
+            + "\"sort\":{\"sorted\":false,\"unsorted\":true,\"empty\":true},\"numberOfElements\":2,\"first\":false,"
+            + "\"empty\":false}";
+
+    BeerPagedListDecoder decoder = new BeerPagedListDecoder(WebClientConfig.beerObjectMapper(
+            Jackson2ObjectMapperBuilder.json()));
+
+    @Test
+    void unknownStylesDecodeToNullWithoutFailingThePage() {
+        String page = PAGE_JSON.replace("\"beerStyle\":\"ALE\"", "\"beerStyle\":\"HAZY_IPA\"");
+
+        StepVerifier.create(decoder.decodeToMono(chunked(page, 7),
+                        ResolvableType.forClass(BeerPagedList.class), MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .assertNext(result -> {
+                    BeerPagedList pagedList = (BeerPagedList) result;
+                    assertThat(pagedList.getContent()).extracting(Beer::getBeerStyle)
+                            .containsExactly(null, BeerStyle.PALE_ALE);
+                    assertThat(pagedList.getContent().get(0).getBeerName()).isEqualTo("Mango Bobs");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void decodesPagedListAcrossArbitraryBufferBoundaries() {
+        StepVerifier.create(decoder.decodeToMono(chunked(PAGE_JSON, 7),
+                        ResolvableType.forClass(BeerPagedList.class), MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .assertNext(result -> {
+                    BeerPagedList page = (BeerPagedList) result;
+                    assertThat(page.getContent()).hasSize(2);
+                    assertThat(page.getContent().get(1).getBeerName()).isEqualTo("Galaxy Cat");
+                    assertThat(page.getContent().get(1).getPrice()).isEqualTo(new BigDecimal("12.10"));
+                    assertThat(page.getNumber()).isEqualTo(2);
+                    assertThat(page.getTotalElements()).isEqualTo(52);
+                    assertThat(page.isLast()).isTrue();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void emitsEachBeerBeforeTheRestOfTheBodyArrives() {
+        int firstBeerEnd = PAGE_JSON.indexOf("},{") + 1;
+
+        StepVerifier.create(decoder.decode(Flux.just(buffer(PAGE_JSON.substring(0, firstBeerEnd)))
+                                .concatWith(Flux.never()),
+                        ResolvableType.forClass(BeerPageElement.class), MediaType.APPLICATION_JSON, null))
+                .assertNext(element -> assertThat(((BeerPageElement) element).getBeer().getBeerName())
+                        .isEqualTo("Mango Bobs"))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void onlyDecodesPageTypes() {
+        assertThat(decoder.canDecode(ResolvableType.forClass(BeerPagedList.class), MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(decoder.canDecode(ResolvableType.forClass(Object.class), MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    private static Flux<DataBuffer> chunked(String json, int chunkSize) {
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < json.length(); i += chunkSize) {
+            buffers.add(buffer(json.substring(i, Math.min(json.length(), i + chunkSize))));
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    private static DataBuffer buffer(String json) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,60 @@
+package com.sadatmalik.webclient.codec;
+
+import com.sadatmalik.webclient.client.BeerClientImpl;
+import com.sadatmalik.webclient.config.HttpClientProperties;
+import com.sadatmalik.webclient.config.ResilienceProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerStyle;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressionTest {
+
+    StubBeerServer stubServer;
+    BeerClientImpl beerClient;
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(100);
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.getCompression().setRequests(true);
+        properties.getCompression().setRequestThreshold(DataSize.ofBytes(300));
+        beerClient = new BeerClientImpl(stubServer.webClient(properties, new ResilienceProperties(),
+                new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void acceptsAndInflatesCompressedPages() {
+        assertThat(beerClient.listBeers(0, 100, null, null, null).block().getContent()).hasSize(100);
+        assertThat(stubServer.lastRequestHeaders().get(HttpHeaderNames.ACCEPT_ENCODING)).contains("gzip");
+    }
+
+    @Test
+    void gzipsRequestBodiesFromTheThresholdUp() {
+        beerClient.createNewBeer(beer("Small")).block();
+        assertThat(stubServer.lastRequestHeaders().contains(HttpHeaderNames.CONTENT_ENCODING)).isFalse();
+
+        Beer large = beer("Large " + "x".repeat(400));
+        beerClient.createNewBeer(large).block();
+        assertThat(stubServer.lastRequestHeaders().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(stubServer.beers()).extracting(Beer::getBeerName).contains("Small", large.getBeerName());
+    }
+
+    private static Beer beer(String name) {
+        return Beer.builder().beerName(name).beerStyle(BeerStyle.PILSNER).upc("123").price(new BigDecimal("9.99")).build();
+    }
+}
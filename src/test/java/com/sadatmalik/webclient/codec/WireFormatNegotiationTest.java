@@ -0,0 +1,87 @@
+package com.sadatmalik.webclient.codec;
+
+import com.sadatmalik.webclient.client.BeerClientImpl;
+import com.sadatmalik.webclient.config.HttpClientProperties;
+import com.sadatmalik.webclient.config.ResilienceProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerPagedList;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.http.MediaType;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round trips through the stub server in each {@link WireFormat}, checking that every format binds to the same
+ * beers as JSON.
+ */
+class WireFormatNegotiationTest {
+
+    StubBeerServer stubServer;
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(12);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @ParameterizedTest
+    @EnumSource(WireFormat.class)
+    void decodesBeersAndPagesInEveryFormat(WireFormat format) {
+        BeerClientImpl beerClient = newClient(format);
+        Beer expected = stubServer.beers().get(4);
+
+        Beer beer = beerClient.getBeerById(expected.getId(), true).block();
+        assertThat(stubServer.lastContentType()).isEqualTo(format.getMediaType().toString());
+        assertThat(beer).usingRecursiveComparison().ignoringFields("createdDate", "lastUpdatedDate")
+                .isEqualTo(expected);
+        assertThat(beer.getCreatedDate().toInstant()).isEqualTo(expected.getCreatedDate().toInstant());
+
+        BeerPagedList page = beerClient.listBeers(1, 5, null, null, null).block();
+        assertThat(page.getContent()).extracting(Beer::getId).containsExactlyElementsOf(
+                stubServer.beers().subList(5, 10).stream().map(Beer::getId).collect(Collectors.toList()));
+        assertThat(page.getTotalElements()).isEqualTo(12);
+
+        StepVerifier.create(beerClient.streamBeers(2, 5, null, null, null))
+                .expectNextCount(2)
+                .assertNext(element -> assertThat(element.getMetadata().isLast()).isTrue())
+                .verifyComplete();
+    }
+
+    @Test
+    void fallsBackToJsonWhenTheServerHasNoBinaryFormat() {
+        stubServer.setBinaryFormats(false);
+        BeerClientImpl beerClient = newClient(WireFormat.SMILE);
+
+        assertThat(beerClient.listBeers(0, 5, null, null, null).block().getContent()).hasSize(5);
+        assertThat(stubServer.lastContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    @Test
+    void ranksPreferredFormatsAheadOfJson() {
+        AcceptHeaderExchangeFilter filter = new AcceptHeaderExchangeFilter(List.of(WireFormat.SMILE, WireFormat.CBOR));
+
+        assertThat(MediaType.toString(filter.getAccept()))
+                .isEqualTo("application/x-jackson-smile, application/cbor;q=0.9, application/json;q=0.8");
+    }
+
+    private BeerClientImpl newClient(WireFormat format) {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setWireFormats(List.of(format));
+        return new BeerClientImpl(stubServer.webClient(properties, new ResilienceProperties(),
+                new SimpleMeterRegistry()));
+    }
+}
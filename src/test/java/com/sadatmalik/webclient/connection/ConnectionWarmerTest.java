@@ -0,0 +1,98 @@
+package com.sadatmalik.webclient.connection;
+
+import com.sadatmalik.webclient.config.HttpClientProperties;
+import com.sadatmalik.webclient.config.WebClientConfig;
+import com.sadatmalik.webclient.config.WebClientProperties;
+import com.sadatmalik.webclient.metrics.BeerClientMetrics;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.netty.http.HttpResources;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.LoopResources;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionWarmerTest {
+
+    StubBeerServer stubServer;
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    HttpClientProperties properties = new HttpClientProperties();
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void warmUpFillsThePoolBeforeTheFirstRequest() {
+        properties.getWarmup().setConnections(3);
+        HttpClient httpClient = new WebClientConfig().beerHttpClient(properties, registry);
+        ConnectionWarmer warmer = new ConnectionWarmer(httpClient, List.of(URI.create(stubServer.baseUrl())),
+                properties, null);
+
+        warmer.warmUp().block();
+
+        assertThat(registry.get(BeerClientMetrics.POOL_PREFIX + ".total").gauge().value()).isEqualTo(3);
+
+        httpClient.get()
+                .uri(stubServer.baseUrl() + WebClientProperties.BEER_V1_PATH)
+                .responseSingle((response, body) -> body.then())
+                .block();
+        assertThat(registry.get(BeerClientMetrics.POOL_PREFIX + ".total").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void dedicatedEventLoopsCarryTheConnections() {
+        properties.getEventLoop().setThreads(2);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        HttpClient httpClient = new WebClientConfig().beerHttpClient(properties, registry)
+                .doOnConnected(connection -> threads.add(Thread.currentThread().getName()));
+
+        new ConnectionWarmer(httpClient, List.of(URI.create(stubServer.baseUrl())), properties, null)
+                .warmUp()
+                .block();
+
+        String transport = LoopResources.hasNativeSupport() ? "epoll" : "nio";
+        assertThat(threads).isNotEmpty().allMatch(name -> name.startsWith("beer-client-" + transport));
+    }
+
+    @Test
+    void resolvedHostsAreCachedAndRefreshedButUnresolvableOnesAreNot() {
+        try (RefreshingAddressResolverGroup addressResolver =
+                     RefreshingAddressResolverGroup.create(properties.getDns(), HttpResources.get(), true)) {
+            addressResolver.resolve(List.of("localhost")).block();
+            assertThat(addressResolver.getAddresses("localhost")).isNotEmpty()
+                    .allMatch(address -> address.isLoopbackAddress());
+
+            StepVerifier.create(addressResolver.resolve(List.of("beer-service.invalid")))
+                    .expectError()
+                    .verify();
+            assertThat(addressResolver.getAddresses("beer-service.invalid")).isNull();
+
+            addressResolver.refresh().block();
+            assertThat(addressResolver.getAddresses("localhost")).isNotEmpty();
+
+            Integer status = HttpClient.create()
+                    .resolver(addressResolver)
+                    .get()
+                    .uri(stubServer.baseUrl() + WebClientProperties.BEER_V1_PATH)
+                    .responseSingle((response, body) -> body.thenReturn(response.status().code()))
+                    .block();
+            assertThat(status).isEqualTo(200);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.sadatmalik.webclient.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sadatmalik.webclient.config.WebClientConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BeerTest {
+
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void decodesStylePriceAndDates() throws Exception {
+        Beer beer = objectMapper.readValue("{\"id\":\"0a818933-087d-47f2-ad83-2f986ed087eb\","
+                + "\"beerName\":\"Mango Bobs\",\"beerStyle\":\"ALE\",\"upc\":\"0631234200036\",\"price\":12.10,"
+                + "\"quantityOnHand\":null,\"createdDate\":\"2021-12-27T19:37:04.124+01:00\","
+                + "\"lastUpdatedDate\":1640633824.124000000}", Beer.class);
+
+        assertThat(beer.getBeerStyle()).isSameAs(BeerStyle.ALE);
+        assertThat(beer.getPrice()).isEqualTo(new BigDecimal("12.10"));
+        assertThat(beer.getCreatedDate()).isEqualTo(OffsetDateTime.of(2021, 12, 27, 19, 37, 4, 124_000_000,
+                ZoneOffset.ofHours(1)));
+        assertThat(beer.getLastUpdatedDate()).isEqualTo(OffsetDateTime.of(2021, 12, 27, 19, 37, 4, 124_000_000,
+                ZoneOffset.UTC));
+    }
+
+    @Test
+    void decodedBeersAreEqualByValue() throws Exception {
+        String json = "{\"beerName\":\"Mango Bobs\",\"price\":12.10,\"lastUpdatedDate\":\"2021-12-27T19:37:04.124Z\"}";
+        Beer decoded = objectMapper.readValue(json, Beer.class);
+
+        assertThat(decoded).isEqualTo(objectMapper.readValue(json, Beer.class))
+                .isEqualTo(decoded.toBuilder().build());
+        assertThat(decoded).isNotEqualTo(decoded.toBuilder().quantityOnHand(1).build());
+    }
+
+    @Test
+    void unknownStylesDecodeToNull() throws Exception {
+        Beer beer = WebClientConfig.beerObjectMapper(Jackson2ObjectMapperBuilder.json())
+                .readValue("{\"beerName\":\"Mango Bobs\",\"beerStyle\":\"HAZY_IPA\",\"price\":12.10}", Beer.class);
+
+        assertThat(beer.getBeerStyle()).isNull();
+        assertThat(beer.getBeerName()).isEqualTo("Mango Bobs");
+    }
+
+    @Test
+    void keepsPricesThatDoNotFitInALong() throws Exception {
+        for (String price : new String[]{"-0.5", "\"7.25\"", "1.5E+3", "123456789012345678901.5"}) {
+            Beer beer = objectMapper.readValue("{\"beerName\":\"Galaxy Cat\",\"price\":" + price + "}", Beer.class);
+
+            assertThat(beer.getPrice()).isEqualTo(new BigDecimal(price.replace("\"", "")));
+        }
+    }
+
+    @Test
+    void roundTripsThroughJson() throws Exception {
+        Beer beer = Beer.builder()
+                .beerName("Galaxy Cat")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("9122089364369")
+                .price(new BigDecimal("12.95"))
+                .quantityOnHand(12)
+                .createdDate(OffsetDateTime.of(2021, 12, 27, 19, 37, 4, 0, ZoneOffset.UTC))
+                .build();
+
+        Beer decoded = objectMapper.readValue(objectMapper.writeValueAsString(beer), Beer.class);
+
+        assertThat(decoded).isEqualTo(beer);
+        assertThat(decoded.toBuilder().quantityOnHand(null).build().getQuantityOnHand()).isNull();
+    }
+
+    @Test
+    void malformedDatesFailWhenRead() throws Exception {
+        Beer beer = objectMapper.readValue("{\"beerName\":\"Galaxy Cat\",\"createdDate\":\"yesterday\"}",
+                Beer.class);
+
+        assertThatThrownBy(beer::getCreatedDate).isInstanceOf(DateTimeParseException.class);
+    }
+
+    @Test
+    void malformedDatesDoNotFailComparisons() throws Exception {
+        String json = "{\"beerName\":\"Galaxy Cat\",\"createdDate\":\"yesterday\"}";
+        Beer beer = objectMapper.readValue(json, Beer.class);
+        Beer same = objectMapper.readValue(json, Beer.class);
+
+        assertThat(beer).isEqualTo(same).hasSameHashCodeAs(same);
+        assertThat(beer).isNotEqualTo(objectMapper.readValue(json.replace("yesterday", "2021-12-27T19:37:04Z"),
+                Beer.class));
+    }
+}
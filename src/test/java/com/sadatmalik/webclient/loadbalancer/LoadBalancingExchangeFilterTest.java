@@ -0,0 +1,149 @@
+package com.sadatmalik.webclient.loadbalancer;
+
+import com.sadatmalik.webclient.client.BeerClientImpl;
+import com.sadatmalik.webclient.config.HttpClientProperties;
+import com.sadatmalik.webclient.config.ResilienceProperties;
+import com.sadatmalik.webclient.config.WebClientConfig;
+import com.sadatmalik.webclient.config.WebClientProperties;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadBalancingExchangeFilterTest {
+
+    StubBeerServer first;
+    StubBeerServer second;
+    WebClientProperties properties;
+    ResilienceProperties resilienceProperties;
+
+    @BeforeEach
+    void setUp() {
+        first = StubBeerServer.start(5);
+        second = StubBeerServer.start(5);
+        properties = new WebClientProperties();
+        properties.setEndpoints(List.of(URI.create(first.baseUrl()), URI.create(second.baseUrl())));
+        properties.getLoadBalancer().setConsecutiveFailures(2);
+        properties.getLoadBalancer().setBaseEjectionTime(Duration.ofMillis(500));
+        properties.getLoadBalancer().setSlowStart(Duration.ZERO);
+        // observe the load balancer alone, without retries moving failed calls to the other endpoint
+        resilienceProperties = new ResilienceProperties();
+        resilienceProperties.getRetry().setMaxAttempts(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void spreadsConcurrentRequestsAcrossEndpoints() {
+        BeerClientImpl beerClient = newClient();
+
+        Flux.range(0, 20)
+                .flatMap(i -> beerClient.listBeers(0, 5, null, null, null))
+                .blockLast();
+
+        assertThat(first.requestCount()).isPositive();
+        assertThat(second.requestCount()).isPositive();
+        assertThat(first.requestCount() + second.requestCount()).isEqualTo(20);
+    }
+
+    @Test
+    void ejectsFailingEndpointAndReturnsItAfterEjection() throws InterruptedException {
+        properties.getLoadBalancer().setStrategy(WebClientProperties.Strategy.POWER_OF_TWO_CHOICES);
+        BeerClientImpl beerClient = newClient();
+        first.setFailureStatus(HttpResponseStatus.SERVICE_UNAVAILABLE);
+
+        Flux.range(0, 20)
+                .concatMap(i -> beerClient.listBeers(0, 5, null, null, null).onErrorResume(e -> Mono.empty()))
+                .blockLast();
+
+        assertThat(first.requestCount()).isEqualTo(2);
+        assertThat(second.requestCount()).isEqualTo(18);
+
+        first.setFailureStatus(null);
+        Thread.sleep(600);
+        Flux.range(0, 10)
+                .concatMap(i -> beerClient.listBeers(0, 5, null, null, null))
+                .blockLast();
+
+        assertThat(first.requestCount()).isGreaterThan(2);
+    }
+
+    @Test
+    void replacesTheBasePathWithTheEndpointPath() {
+        URI baseUrl = URI.create("http://first:8080/api");
+        LoadBalancingExchangeFilter filter = new LoadBalancingExchangeFilter(new EndpointLoadBalancer(
+                List.of(baseUrl, URI.create("http://second:8080/beer-service/"), URI.create("http://third:8080")),
+                properties.getLoadBalancer()), baseUrl);
+        Set<URI> routed = new ConcurrentSkipListSet<>();
+        ExchangeFunction exchange = request -> {
+            routed.add(request.url());
+            // held open so that concurrent requests spread over every endpoint
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build()).delayElement(Duration.ofMillis(50));
+        };
+
+        Flux.range(0, 30)
+                .flatMap(i -> filter.filter(ClientRequest.create(HttpMethod.GET,
+                        URI.create("http://first:8080/api/api/v1/beer?pageSize=5")).build(), exchange))
+                .blockLast();
+
+        assertThat(routed).containsExactlyInAnyOrder(
+                URI.create("http://first:8080/api/api/v1/beer?pageSize=5"),
+                URI.create("http://second:8080/beer-service/api/v1/beer?pageSize=5"),
+                URI.create("http://third:8080/api/v1/beer?pageSize=5"));
+    }
+
+    @Test
+    void countsARequestOutstandingUntilItsBodyHasBeenRead() {
+        URI baseUrl = URI.create("http://first:8080");
+        EndpointLoadBalancer loadBalancer = new EndpointLoadBalancer(List.of(baseUrl), properties.getLoadBalancer());
+        Endpoint endpoint = loadBalancer.getEndpoints().get(0);
+        Sinks.Many<DataBuffer> body = Sinks.many().unicast().onBackpressureBuffer();
+        ExchangeFunction exchange = request -> Mono.just(ClientResponse.create(HttpStatus.OK).body(body.asFlux())
+                .build());
+
+        ClientResponse response = new LoadBalancingExchangeFilter(loadBalancer, baseUrl)
+                .filter(ClientRequest.create(HttpMethod.GET, URI.create("http://first:8080/api/v1/beer")).build(),
+                        exchange)
+                .block();
+        assertThat(endpoint.getOutstanding()).isEqualTo(1);
+
+        Mono<String> read = response.bodyToMono(String.class).cache();
+        read.subscribe();
+        body.tryEmitNext(DefaultDataBufferFactory.sharedInstance.wrap("page".getBytes(StandardCharsets.UTF_8)));
+        assertThat(endpoint.getOutstanding()).isEqualTo(1);
+
+        body.tryEmitComplete();
+        assertThat(read.block()).isEqualTo("page");
+        assertThat(endpoint.getOutstanding()).isZero();
+    }
+
+    private BeerClientImpl newClient() {
+        return new BeerClientImpl(new WebClientConfig().webClient(new HttpClientProperties(), properties,
+                resilienceProperties, new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,133 @@
+package com.sadatmalik.webclient.loadgen;
+
+import com.sadatmalik.webclient.client.BeerClient;
+import com.sadatmalik.webclient.client.BeerClientImpl;
+import com.sadatmalik.webclient.client.BeerOperation;
+import com.sadatmalik.webclient.config.BeerLoadProperties;
+import com.sadatmalik.webclient.config.HttpClientProperties;
+import com.sadatmalik.webclient.config.ResilienceProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class OpenLoadDriverTest {
+
+    StubBeerServer stubServer;
+    BeerLoadProperties properties = new BeerLoadProperties();
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(50);
+        properties.setWarmup(Duration.ZERO);
+        properties.setPageSize(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void theMixIsDrivenAtTheConfiguredRate() {
+        properties.setRate(100);
+        properties.setDuration(Duration.ofSeconds(1));
+        // limits out of the way, so a cold client sheds nothing
+        ResilienceProperties resilienceProperties = new ResilienceProperties();
+        resilienceProperties.getConcurrencyLimit().setEnabled(false);
+        resilienceProperties.getBulkhead().setMaxConcurrentCalls(1000);
+        BeerClient beerClient = new BeerClientImpl(stubServer.webClient(resilienceProperties,
+                new SimpleMeterRegistry()));
+        CatalogSample catalog = CatalogSample.read(beerClient, 10, 50, Duration.ofSeconds(10));
+
+        LoadReport report = new OpenLoadDriver(beerClient, properties)
+                .run(new TrafficMix(properties, catalog, new Random(42)));
+
+        assertThat(report.getTotalLatencies().getTotalCount() + report.getErrorCount()).isEqualTo(100);
+        assertThat(report.getErrorCount()).isZero();
+        assertThat(report.getIncompleteCount()).isZero();
+        for (BeerOperation operation : properties.getMix().keySet()) {
+            assertThat(report.getLatencies(operation).getTotalCount()).as(operation.name()).isPositive();
+        }
+        assertThat(report.getOfferedRate()).isCloseTo(100, within(5.0));
+        assertThat(report.format()).contains("getBeerById", "total", "achieved");
+    }
+
+    @Test
+    void queueingBehindASlowServerShowsInTheLatencies() {
+        // one connection to a server answering in 50 ms serves 20 calls/s; 40 arrive each second
+        HttpClientProperties httpClientProperties = new HttpClientProperties();
+        httpClientProperties.getPool().setMaxConnections(1);
+        ResilienceProperties resilienceProperties = new ResilienceProperties();
+        resilienceProperties.getConcurrencyLimit().setEnabled(false);
+        stubServer.setResponseDelay(Duration.ofMillis(50));
+        properties.setRate(40);
+        properties.setDuration(Duration.ofSeconds(1));
+        properties.setMix(new EnumMap<>(Map.of(BeerOperation.LIST_BEERS, 1)));
+        BeerClient beerClient = new BeerClientImpl(stubServer.webClient(httpClientProperties, resilienceProperties,
+                new SimpleMeterRegistry()));
+
+        LoadReport report = new OpenLoadDriver(beerClient, properties)
+                .run(new TrafficMix(properties, new CatalogSample(stubServer.beers()), new Random(42)));
+
+        // timed from when each call was due, the last calls wait for every one queued ahead of them
+        assertThat(report.getErrorCount()).isZero();
+        assertThat(report.getTotalLatencies().getValueAtPercentile(99))
+                .isGreaterThan(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(report.getThroughput()).isLessThan(25);
+    }
+
+    @Test
+    void recordedTrafficIsReplayedOperationByOperation(@TempDir Path directory) throws IOException {
+        List<Beer> beers = stubServer.beers();
+        Path recording = Files.write(directory.resolve("traffic.txt"), List.of(
+                "# offset-ms method path",
+                "0 GET /api/v1/beer?pageNumber=1&pageSize=10",
+                "30 GET /api/v1/beer/" + beers.get(0).getId() + "?showInventoryOnHand=true",
+                "10 GET /api/v1/beerUpc/" + beers.get(1).getUpc(),
+                "",
+                "40 POST /api/v1/beer",
+                "50 PUT /api/v1/beer/" + beers.get(2).getId()));
+
+        List<Arrival> arrivals = TrafficReplay.read(recording, 2.0, new Random(42));
+        assertThat(arrivals).extracting(Arrival::getOperation).containsExactly(BeerOperation.LIST_BEERS,
+                BeerOperation.GET_BEER_BY_UPC, BeerOperation.GET_BEER_BY_ID, BeerOperation.CREATE_NEW_BEER,
+                BeerOperation.UPDATE_BEER_BY_ID);
+        assertThat(arrivals.get(4).getOffsetNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(25));
+
+        LoadReport report = new OpenLoadDriver(new BeerClientImpl(stubServer.webClient()), properties)
+                .run(arrivals.iterator());
+
+        assertThat(report.getErrorCount()).isZero();
+        assertThat(report.getTotalLatencies().getTotalCount()).isEqualTo(5);
+        assertThat(stubServer.beers()).hasSize(51);
+    }
+
+    @Test
+    void unknownRequestsInARecordingAreRejectedWithTheirLine(@TempDir Path directory) throws IOException {
+        Path recording = Files.write(directory.resolve("traffic.txt"), List.of(
+                "0 GET /api/v1/beer",
+                "5 PATCH /api/v1/beer"));
+
+        assertThatThrownBy(() -> TrafficReplay.read(recording, 1.0, new Random()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("traffic.txt:2");
+    }
+}
@@ -0,0 +1,61 @@
+package com.sadatmalik.webclient.metrics;
+
+import com.sadatmalik.webclient.client.BeerClientImpl;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsExchangeFilterTest {
+
+    StubBeerServer stubServer;
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    BeerClientImpl beerClient;
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(10);
+        beerClient = new BeerClientImpl(stubServer.webClient(registry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void timesEachOperationWithStatusOutcomeAndEndpoint() {
+        beerClient.listBeers(0, 5, null, null, null).block();
+        beerClient.getBeerById(stubServer.beers().get(0).getId(), false).block();
+        beerClient.deleteBeerById(UUID.randomUUID()).onErrorResume(e -> Mono.empty()).block();
+
+        String endpoint = stubServer.baseUrl().substring("http://".length());
+        Timer listBeers = registry.get(BeerClientMetrics.REQUESTS)
+                .tags("operation", "listBeers", "status", "2xx", "outcome", "SUCCESS", "endpoint", endpoint)
+                .timer();
+        assertThat(listBeers.count()).isEqualTo(1);
+        assertThat(registry.get(BeerClientMetrics.REQUESTS)
+                .tags("operation", "deleteBeerById", "status", "4xx", "outcome", "CLIENT_ERROR").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get(BeerClientMetrics.RESPONSE_SIZE).tag("operation", "listBeers").summary().totalAmount())
+                .isPositive();
+    }
+
+    @Test
+    void recordsDecodeTimesAndPoolGauges() {
+        beerClient.listBeers(0, 5, null, null, null).block();
+        beerClient.getBeerByUpc(stubServer.beers().get(0).getUpc()).block();
+
+        assertThat(registry.get(BeerClientMetrics.DECODE).tag("type", "BeerPagedList").timer().count()).isEqualTo(1);
+        assertThat(registry.get(BeerClientMetrics.DECODE).tag("type", "Beer").timer().count()).isEqualTo(1);
+        assertThat(registry.get(BeerClientMetrics.POOL_PREFIX + ".total").gauge().value()).isEqualTo(1);
+        assertThat(registry.get(BeerClientMetrics.POOL_PREFIX + ".pending").gauge().value()).isZero();
+    }
+}
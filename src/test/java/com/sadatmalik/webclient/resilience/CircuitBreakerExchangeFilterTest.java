@@ -0,0 +1,63 @@
+package com.sadatmalik.webclient.resilience;
+
+import com.sadatmalik.webclient.client.BeerClientImpl;
+import com.sadatmalik.webclient.config.ResilienceProperties;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerExchangeFilterTest {
+
+    StubBeerServer stubServer;
+    BeerClientImpl beerClient;
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(10);
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.getRetry().setMaxAttempts(1);
+        properties.getCircuitBreaker().setSlidingWindowSize(4);
+        properties.getCircuitBreaker().setMinimumCalls(4);
+        properties.getCircuitBreaker().setOpenDuration(Duration.ofMillis(300));
+        properties.getCircuitBreaker().setHalfOpenCalls(1);
+        beerClient = new BeerClientImpl(stubServer.webClient(properties, new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void opensOnFailuresFailsFastAndClosesAfterTrialCall() throws InterruptedException {
+        stubServer.setFailureStatus(HttpResponseStatus.BAD_GATEWAY);
+
+        List<Throwable> errors = Flux.range(0, 10)
+                .concatMap(i -> beerClient.listBeers(0, 5, null, null, null)
+                        .flatMap(page -> Mono.<Throwable>empty())
+                        .onErrorResume(Mono::just))
+                .collectList()
+                .block();
+
+        assertThat(stubServer.requestCount()).isEqualTo(4);
+        assertThat(errors).hasSize(10);
+        assertThat(errors.subList(4, 10)).allMatch(CallNotPermittedException.class::isInstance);
+
+        stubServer.setFailureStatus(null);
+        Thread.sleep(400);
+        StepVerifier.create(beerClient.listBeers(0, 5, null, null, null)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(beerClient.listBeers(0, 5, null, null, null)).expectNextCount(1).verifyComplete();
+        assertThat(stubServer.requestCount()).isEqualTo(6);
+    }
+}
@@ -0,0 +1,181 @@
+package com.sadatmalik.webclient.resilience;
+
+import com.sadatmalik.webclient.client.BeerOperation;
+import com.sadatmalik.webclient.config.ResilienceProperties;
+import com.sadatmalik.webclient.metrics.BeerClientMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitExchangeFilterTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ResilienceProperties properties = new ResilienceProperties();
+
+    @Test
+    void queuesInteractiveCallsAheadOfBackgroundOnesAndShedsTheExcess() {
+        ResilienceProperties.ConcurrencyLimit settings = properties.getConcurrencyLimit();
+        settings.setInitialLimit(1);
+        settings.setMinLimit(1);
+        settings.setMaxLimit(1);
+        settings.setMaxQueueSize(2);
+        ConcurrencyLimitExchangeFilter filter = newFilter();
+        Sinks.Empty<Void> firstCallDone = Sinks.empty();
+        List<String> sent = new CopyOnWriteArrayList<>();
+        ExchangeFunction exchange = request -> {
+            String name = request.url().getPath();
+            sent.add(name);
+            Mono<ClientResponse> response = Mono.just(ClientResponse.create(HttpStatus.OK).build());
+            return name.equals("/first") ? firstCallDone.asMono().then(response) : response;
+        };
+
+        Mono<ClientResponse> first = read(filter.filter(request("/first", BeerOperation.LIST_BEERS), exchange)).cache();
+        first.subscribe();
+        Mono<ClientResponse> backgroundA = read(filter.filter(request("/a", BeerOperation.LIST_BEERS), exchange))
+                .cache();
+        backgroundA.subscribe(response -> { }, error -> { });
+        Mono<ClientResponse> backgroundB = filter.filter(request("/b", BeerOperation.LIST_BEERS), exchange).cache();
+        backgroundB.subscribe(response -> { }, error -> { });
+        Mono<ClientResponse> interactive = read(filter.filter(request("/c", BeerOperation.GET_BEER_BY_ID), exchange))
+                .cache();
+        interactive.subscribe();
+
+        StepVerifier.create(backgroundB).expectError(ConcurrencyLimitExceededException.class).verify();
+        StepVerifier.create(filter.filter(request("/d", BeerOperation.LIST_BEERS), exchange))
+                .expectError(CallRejectedException.class)
+                .verify();
+
+        firstCallDone.tryEmitEmpty();
+        StepVerifier.create(Flux.concat(first, interactive, backgroundA)).expectNextCount(3).verifyComplete();
+        assertThat(sent).containsExactly("/first", "/c", "/a");
+        assertThat(registry.get(BeerClientMetrics.REJECTIONS)
+                .tags("operation", "listBeers", "reason", "concurrency-limit").counter().count()).isEqualTo(2);
+        assertThat(registry.get(BeerClientMetrics.CONCURRENCY_IN_FLIGHT).gauge().value()).isZero();
+    }
+
+    @Test
+    void shedsCallsThatWaitTooLong() {
+        properties.getConcurrencyLimit().setMaxLimit(1);
+        properties.getConcurrencyLimit().setMinLimit(1);
+        properties.getConcurrencyLimit().setMaxQueueWait(Duration.ofMillis(50));
+        ConcurrencyLimitExchangeFilter filter = newFilter();
+        ExchangeFunction stalls = request -> Mono.never();
+
+        filter.filter(request("/first", BeerOperation.GET_BEER_BY_ID), stalls).subscribe();
+
+        StepVerifier.create(filter.filter(request("/second", BeerOperation.GET_BEER_BY_ID), stalls))
+                .expectError(ConcurrencyLimitExceededException.class)
+                .verify(Duration.ofSeconds(1));
+        assertThat(registry.get(BeerClientMetrics.CONCURRENCY_QUEUED).gauge().value()).isZero();
+    }
+
+    @Test
+    void growsTheLimitUnderLoadAndShrinksItWhenLatencyClimbs() {
+        properties.getConcurrencyLimit().setInitialLimit(4);
+        ConcurrencyLimitExchangeFilter filter = newFilter();
+        ClientRequest request = request("/beer", BeerOperation.GET_BEER_BY_ID);
+
+        Flux.range(0, 50)
+                .flatMap(i -> read(filter.filter(request, respondAfter(Duration.ofMillis(5)))), 4)
+                .blockLast();
+        double grown = registry.get(BeerClientMetrics.CONCURRENCY_LIMIT).gauge().value();
+        assertThat(grown).isGreaterThan(4);
+
+        Flux.range(0, 10)
+                .concatMap(i -> read(filter.filter(request, respondAfter(Duration.ofMillis(100)))))
+                .blockLast();
+        assertThat(registry.get(BeerClientMetrics.CONCURRENCY_LIMIT).gauge().value()).isLessThan(grown);
+    }
+
+    @Test
+    void slowOperationsAreJudgedAgainstTheirOwnLatency() {
+        properties.getConcurrencyLimit().setInitialLimit(4);
+        ConcurrencyLimitExchangeFilter filter = newFilter();
+
+        Flux.range(0, 20)
+                .concatMap(i -> read(filter.filter(request("/beer", BeerOperation.GET_BEER_BY_ID),
+                        respondAfter(Duration.ofMillis(5)))))
+                .blockLast();
+        Flux.range(0, 5)
+                .concatMap(i -> read(filter.filter(request("/page", BeerOperation.LIST_BEERS),
+                        respondAfter(Duration.ofMillis(100)))))
+                .blockLast();
+
+        assertThat(registry.get(BeerClientMetrics.CONCURRENCY_LIMIT).gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    void holdsTheSlotUntilTheBodyHasBeenRead() {
+        properties.getConcurrencyLimit().setInitialLimit(1);
+        properties.getConcurrencyLimit().setMinLimit(1);
+        properties.getConcurrencyLimit().setMaxLimit(1);
+        properties.getConcurrencyLimit().setMaxQueueSize(0);
+        ConcurrencyLimitExchangeFilter filter = newFilter();
+        ClientRequest request = request("/page", BeerOperation.LIST_BEERS);
+
+        ClientResponse response = filter.filter(request, respondAfter(Duration.ZERO)).block();
+        assertThat(registry.get(BeerClientMetrics.CONCURRENCY_IN_FLIGHT).gauge().value()).isEqualTo(1);
+        StepVerifier.create(filter.filter(request, respondAfter(Duration.ZERO)))
+                .expectError(ConcurrencyLimitExceededException.class)
+                .verify();
+
+        response.releaseBody().block();
+        assertThat(registry.get(BeerClientMetrics.CONCURRENCY_IN_FLIGHT).gauge().value()).isZero();
+    }
+
+    @Test
+    void rateLimitedOperationsFailFastWithATypedException() {
+        ResilienceProperties.RateLimit rateLimit = new ResilienceProperties.RateLimit();
+        rateLimit.setPermitsPerSecond(1);
+        rateLimit.setBurst(2);
+        properties.getRateLimits().put(BeerOperation.LIST_BEERS, rateLimit);
+        ConcurrencyLimitExchangeFilter filter = newFilter();
+        ExchangeFunction ok = respondAfter(Duration.ZERO);
+
+        read(filter.filter(request("/1", BeerOperation.LIST_BEERS), ok)).block();
+        read(filter.filter(request("/2", BeerOperation.LIST_BEERS), ok)).block();
+        StepVerifier.create(filter.filter(request("/3", BeerOperation.LIST_BEERS), ok))
+                .expectError(RateLimitExceededException.class)
+                .verify();
+        read(filter.filter(request("/4", BeerOperation.GET_BEER_BY_ID), ok)).block();
+
+        assertThat(registry.get(BeerClientMetrics.REJECTIONS).tags("operation", "listBeers", "reason", "rate-limit")
+                .counter().count()).isEqualTo(1);
+    }
+
+    ConcurrencyLimitExchangeFilter newFilter() {
+        return new ConcurrencyLimitExchangeFilter(properties, new BeerClientMetrics(registry));
+    }
+
+    static ClientRequest request(String path, BeerOperation operation) {
+        return ClientRequest.create(HttpMethod.GET, URI.create("http://localhost" + path))
+                .attribute(BeerOperation.ATTRIBUTE, operation)
+                .build();
+    }
+
+    /**
+     * Reads the body of the response, which is what gives its slot back.
+     */
+    static Mono<ClientResponse> read(Mono<ClientResponse> exchange) {
+        return exchange.flatMap(response -> response.releaseBody().thenReturn(response));
+    }
+
+    static ExchangeFunction respondAfter(Duration delay) {
+        return request -> Mono.just(ClientResponse.create(HttpStatus.OK).build()).delayElement(delay);
+    }
+}
@@ -0,0 +1,135 @@
+package com.sadatmalik.webclient.resilience;
+
+import com.sadatmalik.webclient.client.BeerClientImpl;
+import com.sadatmalik.webclient.client.BeerOperation;
+import com.sadatmalik.webclient.config.ResilienceProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.metrics.BeerClientMetrics;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResilienceExchangeFilterTest {
+
+    StubBeerServer stubServer;
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ResilienceProperties properties = new ResilienceProperties();
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(10);
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void retriesIdempotentCallsOnly() {
+        BeerClientImpl beerClient = new BeerClientImpl(stubServer.webClient(properties, registry));
+        Beer beer = stubServer.beers().get(0);
+        stubServer.setFailureStatus(HttpResponseStatus.SERVICE_UNAVAILABLE);
+
+        StepVerifier.create(beerClient.getBeerById(beer.getId(), false))
+                .expectErrorSatisfies(error -> assertThat(error).isInstanceOf(WebClientResponseException.class)
+                        .extracting(e -> ((WebClientResponseException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE))
+                .verify();
+        assertThat(stubServer.requestCount()).isEqualTo(3);
+        assertThat(registry.get(BeerClientMetrics.RETRIES).tag("operation", "getBeerById").counter().count())
+                .isEqualTo(2);
+
+        StepVerifier.create(beerClient.createNewBeer(beer)).expectError(WebClientResponseException.class).verify();
+        assertThat(stubServer.requestCount()).isEqualTo(4);
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheLimit() {
+        properties.getBulkhead().setMaxConcurrentCalls(2);
+        BeerClientImpl beerClient = new BeerClientImpl(stubServer.webClient(properties, registry));
+        stubServer.setResponseDelay(Duration.ofMillis(200));
+
+        List<Object> results = Flux.range(0, 5)
+                .flatMap(page -> beerClient.listBeers(page, 2, null, null, null)
+                        .<Object>map(list -> list)
+                        .onErrorResume(Mono::just))
+                .collectList()
+                .block();
+
+        assertThat(results).filteredOn(BulkheadFullException.class::isInstance).hasSize(3);
+        assertThat(stubServer.requestCount()).isEqualTo(2);
+        assertThat(registry.get(BeerClientMetrics.REJECTIONS).tags("operation", "listBeers", "reason", "bulkhead")
+                .counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void bulkheadHoldsACallUntilItsBodyHasBeenRead() {
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        ResilienceExchangeFilter filter = new ResilienceExchangeFilter(properties, new BeerClientMetrics(registry));
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/api/v1/beer"))
+                .attribute(BeerOperation.ATTRIBUTE, BeerOperation.LIST_BEERS)
+                .build();
+        Sinks.Empty<DataBuffer> body = Sinks.empty();
+        ExchangeFunction streaming = r -> Mono.just(ClientResponse.create(HttpStatus.OK).body(body.asMono().flux())
+                .build());
+
+        ClientResponse response = filter.filter(request, streaming).block();
+        StepVerifier.create(filter.filter(request, streaming)).expectError(BulkheadFullException.class).verify();
+
+        body.tryEmitEmpty();
+        response.releaseBody().block();
+        StepVerifier.create(filter.filter(request, streaming).flatMap(ClientResponse::releaseBody))
+                .verifyComplete();
+    }
+
+    @Test
+    void hedgesLookupsSlowerThanThePercentile() {
+        properties.getHedge().setMinSamples(5);
+        ResilienceExchangeFilter filter = new ResilienceExchangeFilter(properties, new BeerClientMetrics(registry));
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/api/v1/beer/1"))
+                .attribute(BeerOperation.ATTRIBUTE, BeerOperation.GET_BEER_BY_ID)
+                .build();
+        AtomicInteger exchanges = new AtomicInteger();
+        ExchangeFunction fast = r -> Mono.fromSupplier(() -> {
+            exchanges.incrementAndGet();
+            return ClientResponse.create(HttpStatus.OK).build();
+        }).delayElement(Duration.ofMillis(5));
+        Flux.range(0, 5).concatMap(i -> filter.filter(request, fast)).blockLast();
+
+        // the first request stalls, the hedge sent after the p95 delay answers
+        exchanges.set(0);
+        ExchangeFunction firstStalls = r -> exchanges.getAndIncrement() == 0
+                ? Mono.never()
+                : Mono.just(ClientResponse.create(HttpStatus.OK).build());
+
+        StepVerifier.create(filter.filter(request, firstStalls))
+                .expectNextMatches(response -> response.statusCode() == HttpStatus.OK)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+        assertThat(exchanges.get()).isEqualTo(2);
+        assertThat(registry.get(BeerClientMetrics.HEDGES).counter().count()).isEqualTo(1);
+    }
+}
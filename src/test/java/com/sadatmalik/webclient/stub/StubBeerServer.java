@@ -0,0 +1,375 @@
+package com.sadatmalik.webclient.stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sadatmalik.webclient.config.HttpClientProperties;
+import com.sadatmalik.webclient.config.ResilienceProperties;
+import com.sadatmalik.webclient.config.WebClientConfig;
+import com.sadatmalik.webclient.config.WebClientProperties;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.domain.BeerStyle;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.http.server.HttpServerRoutes;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * In-process stand-in for the beer service, serving an in-memory catalog on a random local port.
+ */
+public class StubBeerServer implements AutoCloseable {
+
+    static final int DEFAULT_PAGE_SIZE = 25;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final Map<String, ObjectMapper> binaryMappers = Map.of(
+            "application/x-jackson-smile", Jackson2ObjectMapperBuilder.smile().build(),
+            "application/cbor", Jackson2ObjectMapperBuilder.cbor().build());
+    private final Map<UUID, Beer> beers = new LinkedHashMap<>();
+    private final int catalogSize;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile Duration responseDelay = Duration.ZERO;
+    private volatile HttpResponseStatus failureStatus;
+    private volatile boolean binaryFormats = true;
+    private volatile String lastContentType;
+    private volatile HttpHeaders lastRequestHeaders;
+    private final DisposableServer server;
+
+    private StubBeerServer(int catalogSize) {
+        this.catalogSize = catalogSize;
+        for (int i = 0; i < catalogSize; i++) {
+            Beer beer = Beer.builder()
+                    .id(UUID.randomUUID())
+                    .beerName("Beer " + i)
+                    .beerStyle(BeerStyle.IPA)
+                    .upc(String.format("06312342%04d", i))
+                    .price(new BigDecimal("12.95"))
+                    .quantityOnHand(100)
+                    .createdDate(OffsetDateTime.now())
+                    .lastUpdatedDate(OffsetDateTime.now())
+                    .build();
+            beers.put(beer.getId(), beer);
+        }
+
+        HttpServerRoutes routes = HttpServerRoutes.newRoutes()
+                .get(WebClientProperties.BEER_V1_PATH, this::listBeers)
+                .get("/api/v1/beer/{uuid}", (request, response) ->
+                        sendBeer(request, response, findById(request.param("uuid")),
+                                "true".equals(queryParams(request.uri()).get("showInventoryOnHand"))))
+                .get("/api/v1/beerUpc/{upc}", (request, response) ->
+                        sendBeer(request, response, findByUpc(request.param("upc")), false))
+                .post(WebClientProperties.BEER_V1_PATH, this::createBeer)
+                .put("/api/v1/beer/{uuid}", this::updateBeer)
+                .delete("/api/v1/beer/{uuid}", this::deleteBeer);
+
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                // gzip bodies of 1KB or more for clients that accept it
+                .compress(1024)
+                .handle((request, response) -> {
+                    lastRequestHeaders = request.requestHeaders();
+                    HttpResponseStatus failure = failureStatus;
+                    if (failure != null) {
+                        requestCount.incrementAndGet();
+                        return delayed(response.status(failure).send());
+                    }
+                    return routes.apply(request, response);
+                })
+                .bindNow();
+    }
+
+    public static StubBeerServer start(int catalogSize) {
+        return new StubBeerServer(catalogSize);
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    /**
+     * A client configured like the application's, pointed at this server.
+     */
+    public WebClient webClient() {
+        return webClient(new SimpleMeterRegistry());
+    }
+
+    public WebClient webClient(MeterRegistry meterRegistry) {
+        return webClient(new ResilienceProperties(), meterRegistry);
+    }
+
+    public WebClient webClient(ResilienceProperties resilienceProperties, MeterRegistry meterRegistry) {
+        return webClient(new HttpClientProperties(), resilienceProperties, meterRegistry);
+    }
+
+    public WebClient webClient(HttpClientProperties httpClientProperties, ResilienceProperties resilienceProperties,
+                               MeterRegistry meterRegistry) {
+        return new WebClientConfig().webClient(httpClientProperties, webClientProperties(),
+                resilienceProperties, meterRegistry);
+    }
+
+    public WebClientProperties webClientProperties() {
+        WebClientProperties properties = new WebClientProperties();
+        properties.setEndpoints(new ArrayList<>(List.of(URI.create(baseUrl()))));
+        return properties;
+    }
+
+    public synchronized List<Beer> beers() {
+        return new ArrayList<>(beers.values());
+    }
+
+    /**
+     * Drops beers created since the server started, keeping the original catalog.
+     */
+    public synchronized void removeCreatedBeers() {
+        beers.keySet().retainAll(new ArrayList<>(beers.keySet()).subList(0, Math.min(catalogSize, beers.size())));
+    }
+
+    public int requestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Delays every response by the given duration, to simulate a slow backend.
+     */
+    public void setResponseDelay(Duration responseDelay) {
+        this.responseDelay = responseDelay;
+    }
+
+    /**
+     * Answers every request with the given status instead of serving it, or serves normally again when null.
+     */
+    public void setFailureStatus(HttpResponseStatus failureStatus) {
+        this.failureStatus = failureStatus;
+    }
+
+    /**
+     * Whether Smile and CBOR are offered in content negotiation; when not, every body is sent as JSON.
+     */
+    public void setBinaryFormats(boolean binaryFormats) {
+        this.binaryFormats = binaryFormats;
+    }
+
+    /**
+     * Content type of the most recent body sent.
+     */
+    public String lastContentType() {
+        return lastContentType;
+    }
+
+    public HttpHeaders lastRequestHeaders() {
+        return lastRequestHeaders;
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Mono<Void> listBeers(HttpServerRequest request, HttpServerResponse response) {
+        requestCount.incrementAndGet();
+        Map<String, String> params = queryParams(request.uri());
+        int pageNumber = Integer.parseInt(params.getOrDefault("pageNumber", "0"));
+        int pageSize = Integer.parseInt(params.getOrDefault("pageSize", String.valueOf(DEFAULT_PAGE_SIZE)));
+
+        List<Beer> all = beers();
+        int totalPages = (all.size() + pageSize - 1) / pageSize;
+        List<Beer> content = all.stream()
+                .skip((long) pageNumber * pageSize)
+                .limit(pageSize)
+                .collect(Collectors.toList());
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("content", content);
+        page.put("pageable", Map.of("pageNumber", pageNumber, "pageSize", pageSize));
+        page.put("totalPages", totalPages);
+        page.put("totalElements", all.size());
+        page.put("last", pageNumber >= totalPages - 1);
+        page.put("size", pageSize);
+        page.put("number", pageNumber);
+        page.put("sort", Map.of("sorted", false, "unsorted", true, "empty", true));
+        page.put("numberOfElements", content.size());
+        page.put("first", pageNumber == 0);
+
+        return sendJson(request, response, page);
+    }
+
+    private Mono<Void> createBeer(HttpServerRequest request, HttpServerResponse response) {
+        requestCount.incrementAndGet();
+        return receiveBody(request)
+                .flatMap(body -> {
+                    UUID id = UUID.randomUUID();
+                    try {
+                        Beer beer = objectMapper.readValue(body, Beer.class).toBuilder().id(id).build();
+                        synchronized (this) {
+                            beers.put(id, beer);
+                        }
+                    } catch (JsonProcessingException e) {
+                        return sendEmpty(response, HttpResponseStatus.BAD_REQUEST);
+                    }
+                    return response.status(HttpResponseStatus.CREATED)
+                            .header(HttpHeaderNames.LOCATION, WebClientProperties.BEER_V1_PATH + "/" + id)
+                            .send();
+                });
+    }
+
+    /**
+     * The request body as a string, inflated first if it was sent gzipped.
+     */
+    private static Mono<String> receiveBody(HttpServerRequest request) {
+        return request.receive().aggregate().asByteArray().map(bytes -> {
+            if (!"gzip".equals(request.requestHeaders().get(HttpHeaderNames.CONTENT_ENCODING))) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+                return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private Mono<Void> updateBeer(HttpServerRequest request, HttpServerResponse response) {
+        requestCount.incrementAndGet();
+        UUID id = UUID.fromString(request.param("uuid"));
+        return receiveBody(request)
+                .flatMap(body -> {
+                    try {
+                        Beer beer = objectMapper.readValue(body, Beer.class).toBuilder().id(id).build();
+                        synchronized (this) {
+                            if (beers.replace(id, beer) == null) {
+                                return sendEmpty(response, HttpResponseStatus.NOT_FOUND);
+                            }
+                        }
+                    } catch (JsonProcessingException e) {
+                        return sendEmpty(response, HttpResponseStatus.BAD_REQUEST);
+                    }
+                    return sendEmpty(response, HttpResponseStatus.NO_CONTENT);
+                });
+    }
+
+    private Mono<Void> deleteBeer(HttpServerRequest request, HttpServerResponse response) {
+        requestCount.incrementAndGet();
+        Beer removed;
+        synchronized (this) {
+            removed = beers.remove(UUID.fromString(request.param("uuid")));
+        }
+        return sendEmpty(response, removed == null ? HttpResponseStatus.NOT_FOUND : HttpResponseStatus.NO_CONTENT);
+    }
+
+    private synchronized Beer findById(String uuid) {
+        requestCount.incrementAndGet();
+        return beers.get(UUID.fromString(uuid));
+    }
+
+    private synchronized Beer findByUpc(String upc) {
+        requestCount.incrementAndGet();
+        return beers.values().stream().filter(beer -> upc.equals(beer.getUpc())).findFirst().orElse(null);
+    }
+
+    private Mono<Void> sendBeer(HttpServerRequest request, HttpServerResponse response, Beer beer,
+                                boolean showInventoryOnHand) {
+        if (beer == null) {
+            return sendEmpty(response, HttpResponseStatus.NOT_FOUND);
+        }
+        return sendJson(request, response, showInventoryOnHand ? beer : withoutInventory(beer));
+    }
+
+    private static Beer withoutInventory(Beer beer) {
+        return beer.toBuilder().quantityOnHand(null).build();
+    }
+
+    /**
+     * Sends the body in the format negotiated from the {@code Accept} header, with an ETag derived from its bytes,
+     * or 304 if the request already holds that ETag.
+     */
+    private Mono<Void> sendJson(HttpServerRequest request, HttpServerResponse response, Object body) {
+        try {
+            String contentType = negotiate(request.requestHeaders().get(HttpHeaderNames.ACCEPT));
+            byte[] bytes = binaryMappers.getOrDefault(contentType, objectMapper).writeValueAsBytes(body);
+            String eTag = "\"" + Integer.toHexString(Arrays.hashCode(bytes)) + "\"";
+            response.header(HttpHeaderNames.ETAG, eTag);
+            if (eTag.equals(request.requestHeaders().get(HttpHeaderNames.IF_NONE_MATCH))) {
+                return sendEmpty(response, HttpResponseStatus.NOT_MODIFIED);
+            }
+            lastContentType = contentType;
+            return delayed(response.header(HttpHeaderNames.CONTENT_TYPE, contentType)
+                    .sendByteArray(Mono.just(bytes))
+                    .then());
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private Mono<Void> sendEmpty(HttpServerResponse response, HttpResponseStatus status) {
+        return delayed(response.status(status).send());
+    }
+
+    private Mono<Void> delayed(Mono<Void> send) {
+        return responseDelay.isZero() ? send : Mono.delay(responseDelay).then(send);
+    }
+
+    private String negotiate(String accept) {
+        if (accept == null || !binaryFormats) {
+            return "application/json";
+        }
+        String best = "application/json";
+        double bestQuality = -1;
+        for (String range : accept.split(",")) {
+            String[] parts = range.trim().split(";");
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].trim().startsWith("q=")) {
+                    quality = Double.parseDouble(parts[i].trim().substring(2));
+                }
+            }
+            String type = parts[0].trim();
+            if (quality > bestQuality && (binaryMappers.containsKey(type) || type.equals("application/json"))) {
+                best = type;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    private static Map<String, String> queryParams(String uri) {
+        Map<String, String> params = new LinkedHashMap<>();
+        int query = uri.indexOf('?');
+        if (query < 0) {
+            return params;
+        }
+        for (String pair : uri.substring(query + 1).split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return params;
+    }
+}
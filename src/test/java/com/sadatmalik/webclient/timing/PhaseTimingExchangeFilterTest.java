@@ -0,0 +1,125 @@
+package com.sadatmalik.webclient.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sadatmalik.webclient.client.BeerClientImpl;
+import com.sadatmalik.webclient.codec.BeerPagedListDecoder;
+import com.sadatmalik.webclient.codec.DecodeListener;
+import com.sadatmalik.webclient.codec.TimedJacksonDecoder;
+import com.sadatmalik.webclient.config.HttpClientProperties;
+import com.sadatmalik.webclient.config.WebClientConfig;
+import com.sadatmalik.webclient.domain.Beer;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhaseTimingExchangeFilterTest {
+
+    static final double WRITE_TOLERANCE_MILLIS = 20;
+
+    StubBeerServer stubServer;
+    HttpClientProperties properties = new HttpClientProperties();
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void slowCallsAreLoggedWithTheirPhases() {
+        SlowRequestLog log = new SlowRequestLog(Duration.ofMillis(200), 10);
+        BeerClientImpl beerClient = new BeerClientImpl(webClient(log));
+        // distinct beers, so no call joins the previous one still completing in the coalescer
+        List<Beer> beers = stubServer.beers();
+
+        // the first call pays for class loading and connecting
+        beerClient.getBeerByUpc(beers.get(0).getUpc()).block();
+        log.clear();
+        beerClient.getBeerByUpc(beers.get(1).getUpc()).block();
+        assertThat(log.getEntries()).isEmpty();
+
+        stubServer.setResponseDelay(Duration.ofMillis(300));
+        beerClient.getBeerByUpc(beers.get(2).getUpc()).block();
+
+        assertThat(log.getEntries()).singleElement().satisfies(slow -> {
+            assertThat(slow.getOperation()).isEqualTo("getBeerByUpc");
+            assertThat(slow.getMethod()).isEqualTo("GET");
+            assertThat(slow.getStatus()).isEqualTo(200);
+            assertThat(slow.getOutcome()).isEqualTo("SUCCESS");
+            assertThat(slow.getAttempts()).isEqualTo(1);
+            assertThat(slow.getTotalMillis()).isGreaterThanOrEqualTo(300);
+
+            Map<String, Double> phases = slow.getPhaseMillis();
+            assertThat(phases).containsKeys("poolAcquire", "requestWrite", "firstByte", "bodyRead", "decode",
+                    "other");
+            // the server's delay lands between sending the request and the response headers; the server starts it
+            // on reading the headers, a little before the client has finished writing
+            assertThat(phases.get("firstByte")).isGreaterThanOrEqualTo(300 - WRITE_TOLERANCE_MILLIS);
+            assertThat(phases.values().stream().mapToDouble(Double::doubleValue).sum() - phases.get("decode"))
+                    .isLessThanOrEqualTo(slow.getTotalMillis() + 0.01);
+        });
+    }
+
+    @Test
+    void newConnectionsReportTheirConnectTime() {
+        SlowRequestLog log = new SlowRequestLog(Duration.ZERO, 10);
+
+        new BeerClientImpl(webClient(log)).listBeers(0, 5, null, null, null).block();
+
+        assertThat(log.getEntries()).singleElement().satisfies(slow -> {
+            assertThat(slow.getOperation()).isEqualTo("listBeers");
+            assertThat(slow.getPhaseMillis()).containsKeys("connect", "decode");
+        });
+    }
+
+    @Test
+    void theLogKeepsOnlyTheMostRecentSlowCalls() {
+        SlowRequestLog log = new SlowRequestLog(Duration.ZERO, 2);
+        BeerClientImpl beerClient = new BeerClientImpl(webClient(log));
+        List<Beer> beers = stubServer.beers();
+
+        for (Beer beer : beers) {
+            beerClient.getBeerByUpc(beer.getUpc()).block();
+        }
+
+        assertThat(log.getRecordedCount()).isEqualTo(beers.size());
+        assertThat(log.getEntries()).extracting(SlowRequest::getUri)
+                .containsExactly(stubServer.baseUrl() + "/api/v1/beerUpc/" + beers.get(4).getUpc(),
+                        stubServer.baseUrl() + "/api/v1/beerUpc/" + beers.get(3).getUpc());
+
+        log.clear();
+        assertThat(log.getEntries()).isEmpty();
+        assertThat(log.getRecordedCount()).isZero();
+    }
+
+    private WebClient webClient(SlowRequestLog log) {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(
+                        new WebClientConfig().beerHttpClient(properties, new SimpleMeterRegistry())))
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonDecoder(
+                            new TimedJacksonDecoder(new Jackson2JsonDecoder(objectMapper), DecodeListener.NONE));
+                    configurer.customCodecs().register(new BeerPagedListDecoder(objectMapper));
+                })
+                .filter(new PhaseTimingExchangeFilter(log))
+                .baseUrl(stubServer.baseUrl())
+                .build();
+    }
+}
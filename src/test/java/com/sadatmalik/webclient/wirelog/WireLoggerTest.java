@@ -0,0 +1,89 @@
+package com.sadatmalik.webclient.wirelog;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.sadatmalik.webclient.config.HttpClientProperties;
+import com.sadatmalik.webclient.stub.StubBeerServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WireLoggerTest {
+
+    Logger wireLog = (Logger) LoggerFactory.getLogger("webclient.wire");
+    ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    StubBeerServer stubServer;
+    HttpClientProperties properties = new HttpClientProperties();
+
+    @BeforeEach
+    void setUp() {
+        stubServer = StubBeerServer.start(5);
+        appender.start();
+        wireLog.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireLog.detachAppender(appender);
+        wireLog.setLevel(null);
+        stubServer.close();
+    }
+
+    @Test
+    void logsNothingAndAddsNoHandlerWhileDisabled() {
+        wireLog.setLevel(Level.INFO);
+        AtomicInteger handlersSeen = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            newWebClient(handlersSeen).get().uri("/api/v1/beer").retrieve().bodyToMono(String.class).block();
+        }
+
+        assertThat(appender.list).isEmpty();
+        assertThat(handlersSeen).hasValue(0);
+    }
+
+    @Test
+    void logsSampledRequestsWithCappedBodies() {
+        wireLog.setLevel(Level.DEBUG);
+        properties.getWireLog().setSampleRate(2);
+        properties.getWireLog().setHeadersOnly(false);
+        properties.getWireLog().setMaxBodyBytes(16);
+        AtomicInteger handlersSeen = new AtomicInteger();
+
+        WebClient webClient = newWebClient(handlersSeen);
+        for (int i = 0; i < 4; i++) {
+            webClient.get().uri("/api/v1/beer").retrieve().bodyToMono(String.class).block();
+        }
+
+        assertThat(handlersSeen).hasValue(2);
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage)
+                .anySatisfy(message -> assertThat(message).contains("GET").contains("/api/v1/beer"))
+                .anySatisfy(message -> assertThat(message).contains("<< {\"content\":[{\"id").endsWith("..."));
+    }
+
+    private WebClient newWebClient(AtomicInteger handlersSeen) {
+        WireLogger wireLogger = new WireLogger(properties.getWireLog());
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create()
+                        .doOnRequest(wireLogger::onRequest)
+                        .doAfterRequest((request, connection) -> {
+                            if (connection.channel().pipeline().get(WireLogger.HANDLER_NAME) != null) {
+                                handlersSeen.incrementAndGet();
+                            }
+                            wireLogger.afterRequest(request, connection);
+                        })
+                        .doOnResponse(wireLogger::onResponse)))
+                .baseUrl(stubServer.baseUrl())
+                .build();
+    }
+}